@@ -0,0 +1,46 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class PaginatedSerializationBenchmark {
+
+    @Param({"5", "20", "100"})
+    private int pageSize;
+
+    // Configured with the same defaults Spring Boot applies to the application's mapper
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Paginated<TaskReadOnlyDTO> page;
+
+    @Setup
+    public void setUp() {
+        UserReadOnlyDTO user = new UserReadOnlyDTO(1L, UUID.randomUUID().toString(), "benchmark-user", true, "USER");
+        List<TaskReadOnlyDTO> tasks = new ArrayList<>(pageSize);
+        for (long i = 0; i < pageSize; i++) {
+            tasks.add(new TaskReadOnlyDTO(i, UUID.randomUUID().toString(), "Task " + i,
+                    "Description of task " + i + " with a few more words to be realistic", "OPEN", user));
+        }
+        page = new Paginated<>(tasks, 1_000L, 1_000 / pageSize, pageSize, 0, pageSize, true, null);
+        // Builds the serializers up front, as a running application has
+        serialize();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
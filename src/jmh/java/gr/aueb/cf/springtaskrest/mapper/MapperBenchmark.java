@@ -0,0 +1,59 @@
+package gr.aueb.cf.springtaskrest.mapper;
+
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.core.filters.TaskFilters;
+import gr.aueb.cf.springtaskrest.dto.TaskFiltersDTO;
+import gr.aueb.cf.springtaskrest.dto.TaskReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.model.Task;
+import gr.aueb.cf.springtaskrest.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Mapper mapper;
+    private Task task;
+    private TaskFiltersDTO filtersDTO;
+
+    @Setup
+    public void setUp() {
+        // The encoder is only used when mapping passwords, which is not measured here
+        mapper = new Mapper(new BCryptPasswordEncoder());
+
+        User user = new User();
+        user.setId(1L);
+        user.setUuid(UUID.randomUUID().toString());
+        user.setUsername("benchmark-user");
+        user.setIsActive(true);
+        user.setRole(Role.USER);
+
+        task = new Task();
+        task.setId(1L);
+        task.setUuid(UUID.randomUUID().toString());
+        task.setTitle("Prepare the quarterly report");
+        task.setDescription("Collect the figures of every department and summarize them");
+        task.setStatus(TaskStatus.OPEN);
+        task.setUser(user);
+
+        filtersDTO = new TaskFiltersDTO(2, 20, "title", "DESC", null, "report", "quarterly figures",
+                List.of("OPEN", "ONGOING"), true, UUID.randomUUID().toString(), null, null, "CACHED");
+    }
+
+    @Benchmark
+    public TaskReadOnlyDTO mapToTaskReadOnly() {
+        return mapper.mapToTaskReadOnly(task);
+    }
+
+    @Benchmark
+    public TaskFilters mapToTaskFilters() {
+        return mapper.mapToTaskFilters(filtersDTO);
+    }
+}
@@ -0,0 +1,41 @@
+package gr.aueb.cf.springtaskrest.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+    private static final String SECRET_KEY = Base64.getEncoder().encodeToString(new byte[48]);
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry(), SECRET_KEY);
+        token = jwtService.generateToken("benchmark-user", "USER");
+        jwtService.verifyToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("benchmark-user", "USER");
+    }
+
+    // A token seen before, served from the verified-claims cache after hashing
+    @Benchmark
+    public VerifiedClaims verifyCachedToken() {
+        return jwtService.verifyToken(token);
+    }
+
+    // Signature check and claims parsing, as for the first request carrying a token
+    @Benchmark
+    public VerifiedClaims parseToken() {
+        return jwtService.parseClaims(token);
+    }
+}
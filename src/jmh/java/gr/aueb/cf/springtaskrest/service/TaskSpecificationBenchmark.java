@@ -0,0 +1,47 @@
+package gr.aueb.cf.springtaskrest.service;
+
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.core.filters.TaskFilters;
+import gr.aueb.cf.springtaskrest.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assembly of the filter specification only; rendering it to SQL happens inside Hibernate and is covered by the
+ * repository timers at runtime.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class TaskSpecificationBenchmark {
+
+    private TaskFilters noFilters;
+    private TaskFilters allFilters;
+
+    @Setup
+    public void setUp() {
+        noFilters = new TaskFilters();
+
+        allFilters = new TaskFilters();
+        allFilters.setUuid(UUID.randomUUID().toString());
+        allFilters.setTitle("report");
+        allFilters.setSearch("quarterly figures");
+        allFilters.setStatus(List.of(TaskStatus.OPEN, TaskStatus.ONGOING));
+        allFilters.setUserUuid(UUID.randomUUID().toString());
+        allFilters.setUserIsActive(true);
+    }
+
+    @Benchmark
+    public Specification<Task> noFilters() {
+        return TaskService.getSpecsFromFilters(noFilters);
+    }
+
+    @Benchmark
+    public Specification<Task> allFilters() {
+        return TaskService.getSpecsFromFilters(allFilters);
+    }
+}
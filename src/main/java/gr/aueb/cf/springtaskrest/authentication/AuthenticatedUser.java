@@ -0,0 +1,36 @@
+package gr.aueb.cf.springtaskrest.authentication;
+
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+import gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable principal stored in the SecurityContext for JWT-authenticated requests.
+ * Controllers receive it through {@code @AuthenticationPrincipal}.
+ */
+public record AuthenticatedUser(
+        Long id,
+        String uuid,
+        String username,
+        Role role,
+        boolean active
+) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public UserReadOnlyDTO toReadOnlyDTO() {
+        return new UserReadOnlyDTO(id, uuid, username, active, role);
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+}
@@ -1,11 +1,15 @@
 package gr.aueb.cf.springtaskrest.authentication;
 
+import gr.aueb.cf.springtaskrest.core.cache.UserCache;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotAuthorizedException;
+import gr.aueb.cf.springtaskrest.core.jfr.PasswordCheckEvent;
 import gr.aueb.cf.springtaskrest.dto.AuthenticationRequestDTO;
 import gr.aueb.cf.springtaskrest.dto.AuthenticationResponseDTO;
-import gr.aueb.cf.springtaskrest.model.User;
-import gr.aueb.cf.springtaskrest.repository.UserRepository;
+import gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO;
 import gr.aueb.cf.springtaskrest.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,33 +17,58 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final MeterRegistry meterRegistry;
 
     public AuthenticationResponseDTO authenticate(AuthenticationRequestDTO dto)
             throws AppObjectNotAuthorizedException {
 
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(dto.username(), dto.password()));
+        Authentication authentication = checkPassword(dto.username(), dto.password(), "login");
 
-        User user = userRepository.findByUsername(authentication.getName())
+        UserReadOnlyDTO user = userCache.findByUsername(authentication.getName())
                 .orElseThrow(() -> new AppObjectNotAuthorizedException("User", "User not authorized"));
 
-        String token = jwtService.generateToken(authentication.getName(), user.getRole().name());
+        String token = jwtService.generateToken(authentication.getName(), user.role());
         return new AuthenticationResponseDTO(token);
     }
 
     public boolean isPasswordValid(String username, String password) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, password));
+            Authentication authentication = checkPassword(username, password, "confirm");
             return authentication.isAuthenticated();
         } catch (Exception e) {
             return false;
         }
     }
 
+    // The BCrypt comparison dominates the authentication manager's cost, so this timer is effectively the BCrypt time
+    private Authentication checkPassword(String username, String password, String purpose) {
+        PasswordCheckEvent event = new PasswordCheckEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password));
+            outcome = "success";
+            return authentication;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.purpose = purpose;
+                event.outcome = outcome;
+                event.commit();
+            }
+            sample.stop(Timer.builder("auth.password.check")
+                    .description("Password checks against the stored BCrypt hash")
+                    .tag("purpose", purpose)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
 }
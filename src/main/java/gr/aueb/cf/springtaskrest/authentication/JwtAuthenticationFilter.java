@@ -1,7 +1,9 @@
 package gr.aueb.cf.springtaskrest.authentication;
 
-import gr.aueb.cf.springtaskrest.model.User;
+import gr.aueb.cf.springtaskrest.core.jfr.AuthenticationEvent;
+import gr.aueb.cf.springtaskrest.core.jfr.RequestScope;
 import gr.aueb.cf.springtaskrest.security.JwtService;
+import gr.aueb.cf.springtaskrest.security.VerifiedClaims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -13,21 +15,19 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Instant;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalStateCache principalStateCache;
 
     @Override
     protected void doFilterInternal(
@@ -38,7 +38,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String authHeader = request.getHeader("Authorization");
         String jwt;
         String username;
-        String userRole;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -46,17 +45,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         jwt = authHeader.substring(7);
 
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        // Already authenticated or no subject: nothing to load
+        String outcome = "skipped";
         try {
-            username = jwtService.extractSubject(jwt);
-            userRole = jwtService.getStringClaim(jwt, "role");
-
+            long verifyStart = event.isEnabled() ? System.nanoTime() : 0;
+            VerifiedClaims claims = jwtService.verifyToken(jwt);
+            if (event.isEnabled()) event.verifyDuration = System.nanoTime() - verifyStart;
+            username = claims.subject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                User user = (User) userDetails;
+                PrincipalState state = principalStateCache.getPrincipalState(username)
+                        .orElseThrow(() -> new UsernameNotFoundException(username));
 
-                if (!userDetails.isEnabled()) {
-                    LOGGER.warn("User is deactivated: " + username);
+                if (!state.isEnabled()) {
+                    outcome = "disabled";
+                    LOGGER.warn("User is deactivated: {}", username);
                     response.setStatus(HttpStatus.UNAUTHORIZED.value());
                     response.setContentType("application/json");
                     String jsonBody = "{\"code\": \"userDisabled\", \"description\": \"User is deactivated\"}";
@@ -64,32 +69,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     return;
                 }
 
-                if (jwtService.isTokenValid(jwt, userDetails, user.getLastPasswordChange())) {
+                if (jwtService.isTokenValid(claims, state.username(), state.lastPasswordChange())) {
+                    AuthenticatedUser principal = state.toAuthenticatedUser();
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    outcome = "authenticated";
                 } else {
-                    LOGGER.warn("Token is not valid" + request.getRequestURI());
+                    outcome = "invalid";
+                    LOGGER.warn("Token is not valid: {}", request.getRequestURI());
                 }
             }
         } catch (ExpiredJwtException e) {
-            LOGGER.warn("WARN: Expired token ", e);
+            outcome = "expired";
+            LOGGER.warn("Expired token: {}", e.getMessage());
             response.setStatus(HttpStatus.UNAUTHORIZED.value());
             response.setContentType("application/json");
             String jsonBody = "{\"code\": \"expired token\", \"message\"" + e.getMessage() + "\"}";
             response.getWriter().write(jsonBody);
             return;
         } catch (Exception e) {
-            LOGGER.warn("WARN: Something went wrong while parsing JWT ", e);
+            outcome = "error";
+            LOGGER.warn("Something went wrong while parsing JWT: {}", e.toString());
+            LOGGER.debug("JWT parsing failure", e);
             response.setStatus(HttpStatus.FORBIDDEN.value());
             response.setContentType("application/json");
             String jsonBody = "{\"code\": \"invalidToken\", \"description\"" + e.getMessage() + "\"}";
             response.getWriter().write(jsonBody);
             return;
+        } finally {
+            // Committed before the rest of the chain runs, so the event covers authentication only
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = request.getMethod();
+                event.endpoint = request.getRequestURI();
+                event.scope = RequestScope.of(request.getRequestURI());
+                event.outcome = outcome;
+                event.commit();
+            }
         }
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,25 @@
+package gr.aueb.cf.springtaskrest.authentication;
+
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+
+import java.time.Instant;
+
+/**
+ * The subset of a user's row needed to authenticate a request carrying a JWT.
+ */
+public record PrincipalState(
+        Long id,
+        String uuid,
+        String username,
+        Role role,
+        Boolean active,
+        Instant lastPasswordChange
+) {
+    public boolean isEnabled() {
+        return Boolean.TRUE.equals(active);
+    }
+
+    public AuthenticatedUser toAuthenticatedUser() {
+        return new AuthenticatedUser(id, uuid, username, role, isEnabled());
+    }
+}
@@ -0,0 +1,79 @@
+package gr.aueb.cf.springtaskrest.authentication;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gr.aueb.cf.springtaskrest.core.datasource.ReadWriteRoutingDataSource;
+import gr.aueb.cf.springtaskrest.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of {@link PrincipalState} by username, so that authenticating a request
+ * does not need to load the full {@code User} entity from the database.
+ * <p>
+ * Every write that changes a user's username, role, activity or password must call
+ * {@link #evict(String)} (or {@link #evictAll()}); the TTL only bounds staleness for changes
+ * made outside the application. States are loaded from the primary, so a deactivation or password change
+ * cannot be undone by a lagging replica.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalStateCache implements MeterBinder {
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final long MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, PrincipalState> states = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    public Optional<PrincipalState> getPrincipalState(String username) {
+        return Optional.ofNullable(states.get(username,
+                key -> ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findPrincipalStateByUsername(key).orElse(null))));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, states, "principals");
+    }
+
+    /**
+     * Evicts the user immediately and, when called inside a transaction, once more after it
+     * completes, so a request racing with the write cannot re-cache the pre-commit state.
+     */
+    public void evict(String username) {
+        if (username == null) return;
+        states.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    states.invalidate(username);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        states.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    states.invalidateAll();
+                }
+            });
+        }
+    }
+}
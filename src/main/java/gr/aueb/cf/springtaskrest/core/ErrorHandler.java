@@ -3,6 +3,7 @@ package gr.aueb.cf.springtaskrest.core;
 import gr.aueb.cf.springtaskrest.core.exceptions.*;
 import gr.aueb.cf.springtaskrest.dto.ApiErrorDTO;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -56,6 +57,19 @@ public class ErrorHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(new ApiErrorDTO(e.getCode(), e.getMessage(), System.currentTimeMillis(), request.getRequestURI()), HttpStatus.FORBIDDEN);
     }
 
+    @ExceptionHandler({AppObjectPreconditionFailedException.class})
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ResponseEntity<ApiErrorDTO> handleConstraintViolationException(AppObjectPreconditionFailedException e, HttpServletRequest request) {
+        return new ResponseEntity<>(new ApiErrorDTO(e.getCode(), e.getMessage(), System.currentTimeMillis(), request.getRequestURI()), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // A concurrent write got in between reading and flushing a versioned entity
+    @ExceptionHandler({OptimisticLockingFailureException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ApiErrorDTO> handleConstraintViolationException(OptimisticLockingFailureException e, HttpServletRequest request) {
+        return new ResponseEntity<>(new ApiErrorDTO("ConcurrentModification", "The resource was modified concurrently, reload it and retry", System.currentTimeMillis(), request.getRequestURI()), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler({AppServerException.class})
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ResponseEntity<ApiErrorDTO> handleConstraintViolationException(AppServerException e, HttpServletRequest request) {
@@ -0,0 +1,69 @@
+package gr.aueb.cf.springtaskrest.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gr.aueb.cf.springtaskrest.core.filters.TaskFilters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Totals of filtered task queries, reused across pages of the same filter for {@code CountMode.CACHED}.
+ * <p>
+ * Task writes evict the entries of the affected user plus every cross-user entry. The TTL bounds how
+ * approximate a total can get through changes that are not evicted explicitly.
+ */
+@Component
+public class TaskCountCache implements MeterBinder {
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final long MAX_ENTRIES = 10_000;
+
+    private final Cache<TaskCountKey, Long> counts = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    public long getCount(TaskFilters filters, LongSupplier counter) {
+        return counts.get(TaskCountKey.of(filters), key -> counter.getAsLong());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, counts, "tasks.counts");
+    }
+
+    public void evictUser(String userUuid) {
+        evictUserNow(userUuid);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictUserNow(userUuid);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        counts.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counts.invalidateAll();
+                }
+            });
+        }
+    }
+
+    private void evictUserNow(String userUuid) {
+        counts.asMap().keySet().removeIf(key -> key.isAffectedBy(userUuid));
+    }
+}
@@ -0,0 +1,35 @@
+package gr.aueb.cf.springtaskrest.core.cache;
+
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.core.filters.TaskFilters;
+
+import java.util.List;
+
+/**
+ * The shape of a task filter that determines its total, i.e. everything except paging and sorting.
+ * A null {@code userUuid} means the count spans all users.
+ */
+public record TaskCountKey(
+        String userUuid,
+        String uuid,
+        String title,
+        String search,
+        List<TaskStatus> status,
+        Boolean userIsActive
+) {
+    public static TaskCountKey of(TaskFilters filters) {
+        List<TaskStatus> status = filters.getStatus() == null || filters.getStatus().isEmpty()
+                ? null
+                : filters.getStatus().stream().distinct().sorted().toList();
+        return new TaskCountKey(filters.getUserUuid(), normalize(filters.getUuid()), normalize(filters.getTitle()), normalize(filters.getSearch()), status, filters.getUserIsActive());
+    }
+
+    public boolean isAffectedBy(String changedUserUuid) {
+        return userUuid == null || userUuid.equals(changedUserUuid);
+    }
+
+    // Text filters and search are case-insensitive, blank ones are ignored
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.toUpperCase();
+    }
+}
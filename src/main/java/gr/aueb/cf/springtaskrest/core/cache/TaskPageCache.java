@@ -0,0 +1,152 @@
+package gr.aueb.cf.springtaskrest.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import gr.aueb.cf.springtaskrest.core.datasource.ReplicaProperties;
+import gr.aueb.cf.springtaskrest.core.enums.ReplicaReadMode;
+import gr.aueb.cf.springtaskrest.core.filters.TaskFilters;
+import gr.aueb.cf.springtaskrest.dto.CacheStatsReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.dto.Paginated;
+import gr.aueb.cf.springtaskrest.dto.TaskReadOnlyDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Pages of filtered tasks, so that identical filter requests (e.g. dashboards polling the same filter)
+ * do not re-run the page and count queries.
+ * <p>
+ * Task writes evict the entries of the affected user plus every cross-user entry, exactly like
+ * {@link TaskCountCache}. Entries are weighed by an estimate of their size in bytes, so the cache is
+ * bounded by memory rather than by number of pages.
+ */
+@Component
+public class TaskPageCache implements MeterBinder {
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final long MAX_WEIGHT_BYTES = 64L * 1024 * 1024;
+    private static final int PAGE_OVERHEAD_BYTES = 256;
+    private static final int TASK_OVERHEAD_BYTES = 192;
+    private static final long MAX_TRACKED_USERS = 100_000;
+
+    private final Cache<TaskPageKey, Paginated<TaskReadOnlyDTO>> pages = Caffeine.newBuilder()
+            .maximumWeight(MAX_WEIGHT_BYTES)
+            .weigher(TaskPageCache::weigh)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    // A page is not cached when an eviction affecting it happened during its load, since it may have been read
+    // before the write it raced with committed. With replica routing, pages loaded within the read-your-writes
+    // window after such an eviction are not cached either, they may come from a replica that lags behind the write
+    private final long graceNanos;
+    private final Cache<String, Long> userEvictionNanos;
+    // Cross-user pages are affected by every eviction, user pages by the evictions of their user and by evictAll
+    private volatile long lastEvictionNanos;
+    private volatile long lastEvictAllNanos;
+
+    public TaskPageCache(ReplicaProperties replicaProperties) {
+        boolean replicaReads = replicaProperties.getUrl() != null && replicaProperties.getReadMode() != ReplicaReadMode.PRIMARY;
+        this.graceNanos = replicaReads ? replicaProperties.getReadYourWritesWindow().toNanos() : 0;
+        // Kept long enough to outlive any page load plus the grace window
+        this.userEvictionNanos = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_USERS)
+                .expireAfterWrite(TTL.plusNanos(graceNanos))
+                .build();
+        this.lastEvictionNanos = System.nanoTime() - graceNanos - 1;
+        this.lastEvictAllNanos = lastEvictionNanos;
+    }
+
+    public Paginated<TaskReadOnlyDTO> getPage(TaskFilters filters, Supplier<Paginated<TaskReadOnlyDTO>> loader) {
+        TaskPageKey key = TaskPageKey.of(filters);
+        Paginated<TaskReadOnlyDTO> cached = pages.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadStartNanos = System.nanoTime();
+        Paginated<TaskReadOnlyDTO> page = loader.get();
+        if (!evictedSince(key, loadStartNanos - graceNanos)) {
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    private boolean evictedSince(TaskPageKey key, long sinceNanos) {
+        String userUuid = key.filter().userUuid();
+        if (userUuid == null) {
+            return lastEvictionNanos - sinceNanos >= 0;
+        }
+        Long userNanos = userEvictionNanos.getIfPresent(userUuid);
+        return lastEvictAllNanos - sinceNanos >= 0 || (userNanos != null && userNanos - sinceNanos >= 0);
+    }
+
+    public CacheStatsReadOnlyDTO getStats() {
+        CacheStats stats = pages.stats();
+        return new CacheStatsReadOnlyDTO("tasks.pages", pages.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages, "tasks.pages");
+    }
+
+    public void evictUser(String userUuid) {
+        evictUserNow(userUuid);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictUserNow(userUuid);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        evictAllNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictAllNow();
+                }
+            });
+        }
+    }
+
+    private void evictUserNow(String userUuid) {
+        long now = System.nanoTime();
+        userEvictionNanos.put(userUuid, now);
+        lastEvictionNanos = now;
+        pages.asMap().keySet().removeIf(key -> key.isAffectedBy(userUuid));
+    }
+
+    private void evictAllNow() {
+        long now = System.nanoTime();
+        lastEvictAllNanos = now;
+        lastEvictionNanos = now;
+        pages.invalidateAll();
+    }
+
+    // Strings are counted as two bytes per char, plus a rough fixed cost per object graph
+    private static int weigh(TaskPageKey key, Paginated<TaskReadOnlyDTO> page) {
+        long weight = PAGE_OVERHEAD_BYTES;
+        for (TaskReadOnlyDTO task : page.data()) {
+            weight += TASK_OVERHEAD_BYTES
+                    + 2L * (length(task.uuid()) + length(task.title()) + length(task.description()) + length(task.status())
+                    + length(task.user().uuid()) + length(task.user().username()) + length(task.user().role()));
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
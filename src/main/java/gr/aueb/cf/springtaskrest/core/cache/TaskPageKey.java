@@ -0,0 +1,28 @@
+package gr.aueb.cf.springtaskrest.core.cache;
+
+import gr.aueb.cf.springtaskrest.core.enums.CountMode;
+import gr.aueb.cf.springtaskrest.core.filters.TaskFilters;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Everything that determines a page of filtered tasks: the filter shape plus paging, sorting and count mode.
+ * The requested {@code sortBy} is kept as given, since no sort and an explicit sort by id differ when searching.
+ */
+public record TaskPageKey(
+        TaskCountKey filter,
+        int page,
+        int size,
+        String sortBy,
+        Sort.Direction direction,
+        CountMode countMode
+) {
+    public static TaskPageKey of(TaskFilters filters) {
+        String sortBy = filters.getSortBy() == null || filters.getSortBy().isBlank() ? null : filters.getSortBy();
+        return new TaskPageKey(TaskCountKey.of(filters), filters.getPage(), filters.getPageSize(), sortBy,
+                filters.getSortDirection(), filters.getCountMode());
+    }
+
+    public boolean isAffectedBy(String changedUserUuid) {
+        return filter.isAffectedBy(changedUserUuid);
+    }
+}
@@ -0,0 +1,115 @@
+package gr.aueb.cf.springtaskrest.core.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import gr.aueb.cf.springtaskrest.core.datasource.ReadWriteRoutingDataSource;
+import gr.aueb.cf.springtaskrest.dto.CacheStatsReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read-only snapshots of users by uuid and by username, so that resolving the user of a request
+ * (mostly uuid to id) does not hit the database every time.
+ * <p>
+ * Every write that changes or removes a user must call {@link #evict(String, String)} (or {@link #evictAll()});
+ * the TTL only bounds staleness for changes made outside the application. Unknown keys are not cached,
+ * so a user is visible as soon as it is created. Entries are loaded from the primary, a lagging replica could
+ * otherwise re-cache the state an eviction just dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCache implements MeterBinder {
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final long MAX_ENTRIES = 10_000;
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, UserReadOnlyDTO> byUuid = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    private final Cache<String, UserReadOnlyDTO> byUsername = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+
+    public Optional<UserReadOnlyDTO> findByUuid(String uuid) {
+        return Optional.ofNullable(byUuid.get(uuid, key -> ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findReadOnlyByUuid(key).orElse(null))));
+    }
+
+    public Optional<UserReadOnlyDTO> findByUsername(String username) {
+        return Optional.ofNullable(byUsername.get(username, key -> ReadWriteRoutingDataSource.onPrimary(() -> userRepository.findReadOnlyByUsername(key).orElse(null))));
+    }
+
+    /**
+     * Evicts the user immediately and, when called inside a transaction, once more after it
+     * completes, so a request racing with the write cannot re-cache the pre-commit state.
+     * Both the old and the new username should be evicted when a username changes.
+     */
+    public void evict(String uuid, String... usernames) {
+        evictNow(uuid, usernames);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(uuid, usernames);
+                }
+            });
+        }
+    }
+
+    public void evictAll() {
+        evictAllNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictAllNow();
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byUuid, "users.byUuid");
+        CaffeineCacheMetrics.monitor(registry, byUsername, "users.byUsername");
+    }
+
+    public List<CacheStatsReadOnlyDTO> getStats() {
+        return List.of(toStats("users.byUuid", byUuid), toStats("users.byUsername", byUsername));
+    }
+
+    private void evictNow(String uuid, String... usernames) {
+        if (uuid != null) byUuid.invalidate(uuid);
+        for (String username : usernames) {
+            if (username != null) byUsername.invalidate(username);
+        }
+    }
+
+    private void evictAllNow() {
+        byUuid.invalidateAll();
+        byUsername.invalidateAll();
+    }
+
+    private static CacheStatsReadOnlyDTO toStats(String name, Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsReadOnlyDTO(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+}
@@ -0,0 +1,136 @@
+package gr.aueb.cf.springtaskrest.core.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most as many callers as the pool has connections, in FIFO order. With virtual threads thousands of
+ * requests can ask for a connection at once; they park cheaply on the semaphore instead of all contending
+ * inside the pool, and the ones that time out fail the same way the pool would. The permit wait and the pool
+ * wait together are bounded by the acquire timeout. The permit is returned when the connection is closed.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+    private final String name;
+    private final int maxPermits;
+    private final long acquireTimeoutMillis;
+    private final Semaphore permits;
+
+    public ConnectionLimitingDataSource(String name, DataSource target, int maxPermits, long acquireTimeoutMillis) {
+        super(target);
+        this.name = name;
+        this.maxPermits = maxPermits;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxPermits, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long waitStartNanos = acquirePermit();
+        try {
+            return releasingOnClose(getConnectionWithin(remainingMillis(waitStartNanos)));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long waitStartNanos = acquirePermit();
+        try {
+            // No pool takes a timeout together with credentials (Hikari rejects them outright), so the target gets no
+            // deadline of its own; it is at least not asked once the permit wait has used up the whole timeout
+            if (remainingMillis(waitStartNanos) == 0) {
+                throw timedOut();
+            }
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxPermits() {
+        return maxPermits;
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    // Returns when the wait started, the pool is only given what is left of the timeout after the permit
+    private long acquirePermit() throws SQLException {
+        long waitStartNanos = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw timedOut();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException(name + " - Interrupted while waiting for a connection", e);
+        }
+        return waitStartNanos;
+    }
+
+    private SQLTransientConnectionException timedOut() {
+        return new SQLTransientConnectionException(name + " - Connection is not available, request timed out after "
+                + acquireTimeoutMillis + "ms with " + permits.getQueueLength() + " requests waiting");
+    }
+
+    private long remainingMillis(long waitStartNanos) {
+        return Math.max(0, acquireTimeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - waitStartNanos));
+    }
+
+    // HikariDataSource always waits its full connectionTimeout, its pool accepts a timeout per call once started
+    private Connection getConnectionWithin(long timeoutMillis) throws SQLException {
+        if (getTargetDataSource() instanceof HikariDataSource hikari && !hikari.isClosed()
+                && hikari.getHikariPoolMXBean() instanceof HikariPool pool) {
+            return pool.getConnection(timeoutMillis);
+        }
+        return super.getConnection();
+    }
+
+    private Connection releasingOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionLimitingDataSource.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "close" -> {
+                        try {
+                            yield invoke(connection, method, args);
+                        } finally {
+                            if (released.compareAndSet(false, true)) permits.release();
+                        }
+                    }
+                    default -> invoke(connection, method, args);
+                });
+    }
+
+    private static Object invoke(Connection connection, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
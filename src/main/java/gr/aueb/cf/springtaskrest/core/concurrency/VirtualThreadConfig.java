@@ -0,0 +1,54 @@
+package gr.aueb.cf.springtaskrest.core.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Active with {@code spring.threads.virtual.enabled=true}, which also moves Tomcat request handling, the
+ * application task executor and scheduling onto virtual threads.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Wraps every Hikari pool, so both the single pool and the primary/replica pools are guarded
+    @Bean
+    public static BeanPostProcessor connectionLimitingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    String name = hikari.getPoolName() != null ? hikari.getPoolName() : beanName;
+                    return new ConnectionLimitingDataSource(name, hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder connectionPermitMetrics(ObjectProvider<DataSource> dataSources) {
+        return registry -> dataSources.orderedStream()
+                .filter(ConnectionLimitingDataSource.class::isInstance)
+                .map(ConnectionLimitingDataSource.class::cast)
+                .forEach(dataSource -> {
+                    Gauge.builder("jdbc.connections.permits.available", dataSource, ConnectionLimitingDataSource::getAvailablePermits)
+                            .description("Connection permits not currently held")
+                            .tag("pool", dataSource.getName())
+                            .register(registry);
+                    Gauge.builder("jdbc.connections.permits.waiting", dataSource, ConnectionLimitingDataSource::getWaiting)
+                            .description("Threads waiting for a connection permit")
+                            .tag("pool", dataSource.getName())
+                            .register(registry);
+                });
+    }
+}
@@ -0,0 +1,138 @@
+package gr.aueb.cf.springtaskrest.core.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams the JDK's {@code jdk.VirtualThreadPinned} events in-process while virtual threads are enabled.
+ * A virtual thread is pinned when it blocks inside {@code synchronized} (or native code) and keeps its carrier
+ * thread busy; the first application frame of each pinned stack is counted, so the offending code can be found.
+ */
+@Component
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor implements SmartLifecycle, MeterBinder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+    private static final int MAX_SITES = 100;
+    private static final int TOP_SITES = 10;
+    private static final String APPLICATION_PACKAGE = "gr.aueb.cf.springtaskrest";
+
+    private final Environment environment;
+
+    private final LongAdder pinnedEvents = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final AtomicLong maxPinnedNanos = new AtomicLong();
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    public boolean isEnabled() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) return;
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::record);
+        recording.startAsync();
+        stream = recording;
+        LOGGER.info("Monitoring virtual thread pinning longer than {}ms", PINNED_THRESHOLD.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jvm.threads.virtual.pinned", pinnedEvents, LongAdder::sum)
+                .description("Virtual threads pinned to their carrier longer than " + PINNED_THRESHOLD.toMillis() + "ms")
+                .register(registry);
+        FunctionCounter.builder("jvm.threads.virtual.pinned.time", pinnedNanos, nanos -> nanos.sum() / 1e9)
+                .description("Total time virtual threads spent pinned")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.sum();
+    }
+
+    public long getPinnedMillis() {
+        return Duration.ofNanos(pinnedNanos.sum()).toMillis();
+    }
+
+    public long getMaxPinnedMillis() {
+        return Duration.ofNanos(maxPinnedNanos.get()).toMillis();
+    }
+
+    public Map<String, Long> getTopSites() {
+        Map<String, Long> top = new LinkedHashMap<>();
+        sites.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(TOP_SITES)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue().sum()));
+        return top;
+    }
+
+    private void record(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinnedEvents.increment();
+        pinnedNanos.add(nanos);
+        maxPinnedNanos.accumulateAndGet(nanos, Math::max);
+        String site = site(event);
+        LongAdder count = sites.get(site);
+        if (count == null && sites.size() < MAX_SITES) {
+            count = sites.computeIfAbsent(site, key -> new LongAdder());
+            LOGGER.warn("Virtual thread pinned for {}ms at {}", Duration.ofNanos(nanos).toMillis(), site);
+        }
+        if (count != null) count.increment();
+    }
+
+    // The first application frame, or the top frame when the pinning happened entirely in library code
+    private static String site(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) return "unknown";
+        RecordedFrame top = event.getStackTrace().getFrames().get(0);
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return format(frame);
+            }
+        }
+        return format(top);
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,65 @@
+package gr.aueb.cf.springtaskrest.core.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to the replica and everything else (read-write transactions and statements
+ * outside a transaction) to the primary, so a write can never reach the replica.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction
+ * managers obtain the connection before the transaction is marked read-only, the proxy defers the choice to
+ * the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaReadPolicy readPolicy;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaReadPolicy readPolicy) {
+        this.readPolicy = readPolicy;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs the action with any connection it opens taken from the primary, for reads whose result outlives the
+     * request (e.g. cache loads) and must not come from a lagging replica. Has no effect on a connection the
+     * current transaction already holds.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (Boolean.TRUE.equals(FORCE_PRIMARY.get())) {
+            return action.get();
+        }
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readPolicy.writeStarted();
+            }
+            return Route.PRIMARY;
+        }
+        if (Boolean.TRUE.equals(FORCE_PRIMARY.get()) || !readPolicy.useReplica()) {
+            return Route.PRIMARY;
+        }
+        return Route.REPLICA;
+    }
+}
@@ -0,0 +1,27 @@
+package gr.aueb.cf.springtaskrest.core.datasource;
+
+import gr.aueb.cf.springtaskrest.core.enums.ReplicaReadMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Connection and staleness settings of the read replica. Routing is only enabled when {@code url} is set;
+ * username and password default to those of {@code spring.datasource}. Pool settings are bound from
+ * {@code app.datasource.replica.hikari.*}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+    private String url;
+    private String username;
+    private String password;
+    private ReplicaReadMode readMode = ReplicaReadMode.READ_YOUR_WRITES;
+    // Should cover the worst replication lag that is tolerated
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
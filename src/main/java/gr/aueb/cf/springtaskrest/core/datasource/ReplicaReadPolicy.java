@@ -0,0 +1,68 @@
+package gr.aueb.cf.springtaskrest.core.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import gr.aueb.cf.springtaskrest.core.enums.ReplicaReadMode;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Decides whether a read-only transaction may be served by the replica. With
+ * {@link ReplicaReadMode#READ_YOUR_WRITES}, a user who committed a write is pinned to the primary for
+ * the configured window, so they never read their own change from a lagging replica.
+ */
+public class ReplicaReadPolicy {
+    private static final long MAX_TRACKED_WRITERS = 100_000;
+
+    private final ReplicaReadMode mode;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaReadPolicy(ReplicaReadMode mode, Duration readYourWritesWindow) {
+        this(mode, readYourWritesWindow, Ticker.systemTicker());
+    }
+
+    ReplicaReadPolicy(ReplicaReadMode mode, Duration readYourWritesWindow, Ticker ticker) {
+        this.mode = mode;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_WRITERS)
+                .expireAfterWrite(readYourWritesWindow)
+                .ticker(ticker)
+                .build();
+    }
+
+    public boolean useReplica() {
+        return switch (mode) {
+            case EVENTUAL -> true;
+            case PRIMARY -> false;
+            case READ_YOUR_WRITES -> {
+                String user = currentUser();
+                yield user == null || recentWriters.getIfPresent(user) == null;
+            }
+        };
+    }
+
+    /**
+     * Called when a read-write transaction obtains a connection; the current user is remembered once it commits.
+     */
+    public void writeStarted() {
+        if (mode != ReplicaReadMode.READ_YOUR_WRITES || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+        String user = currentUser();
+        if (user == null) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
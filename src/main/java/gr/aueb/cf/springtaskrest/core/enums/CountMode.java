@@ -0,0 +1,7 @@
+package gr.aueb.cf.springtaskrest.core.enums;
+
+public enum CountMode {
+    EXACT,
+    NONE,
+    CACHED
+}
@@ -0,0 +1,6 @@
+package gr.aueb.cf.springtaskrest.core.enums;
+
+public enum PaginationMode {
+    OFFSET,
+    CURSOR
+}
@@ -0,0 +1,5 @@
+package gr.aueb.cf.springtaskrest.core.enums;
+
+public enum PurgeStatus {
+    RUNNING, COMPLETED, FAILED
+}
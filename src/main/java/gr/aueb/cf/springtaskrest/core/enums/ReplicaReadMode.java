@@ -0,0 +1,10 @@
+package gr.aueb.cf.springtaskrest.core.enums;
+
+public enum ReplicaReadMode {
+    // Every read-only transaction goes to the replica
+    EVENTUAL,
+    // Like EVENTUAL, except for users who committed a write within the read-your-writes window
+    READ_YOUR_WRITES,
+    // The replica is not used
+    PRIMARY
+}
@@ -0,0 +1,38 @@
+package gr.aueb.cf.springtaskrest.core.etag;
+
+import org.springframework.util.DigestUtils;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public final class ETags {
+    private ETags() {
+
+    }
+
+    /**
+     * Strong entity tag made of the version numbers (and anything else) the representation depends on.
+     */
+    public static String of(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Strong entity tag of a representation that has no version of its own, from a hash of its bytes.
+     */
+    public static String ofContent(byte[] content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    /**
+     * Strong comparison against an {@code If-Match} header, weak tags never match (RFC 9110, 13.1.1).
+     */
+    public static boolean matches(String ifMatch, String eTag) {
+        if (ifMatch == null || ifMatch.isBlank()) return false;
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,7 @@
+package gr.aueb.cf.springtaskrest.core.etag;
+
+/**
+ * A representation together with the entity tag of the state it was built from.
+ */
+public record Versioned<T>(T body, String eTag) {
+}
@@ -0,0 +1,10 @@
+package gr.aueb.cf.springtaskrest.core.exceptions;
+
+public class AppObjectPreconditionFailedException extends AppObjectGenericException {
+    private static final String DEFAULT_CODE = "PreconditionFailed";
+
+    public AppObjectPreconditionFailedException(String code, String message) {
+        super(code + DEFAULT_CODE, message);
+    }
+
+}
@@ -0,0 +1,25 @@
+package gr.aueb.cf.springtaskrest.core.export;
+
+import gr.aueb.cf.springtaskrest.dto.TaskReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The flat column layout of an exported row, used by the CSV format.
+ */
+public record ExportColumns<T>(List<String> header, Function<T, List<Object>> values) {
+
+    public static final ExportColumns<TaskReadOnlyDTO> TASKS = new ExportColumns<>(
+            List.of("id", "uuid", "title", "description", "status", "userUuid", "username"),
+            task -> Arrays.asList(task.id(), task.uuid(), task.title(), task.description(), task.status(),
+                    task.user().uuid(), task.user().username())
+    );
+
+    public static final ExportColumns<UserReadOnlyDTO> USERS = new ExportColumns<>(
+            List.of("id", "uuid", "username", "isActive", "role"),
+            user -> Arrays.asList(user.id(), user.uuid(), user.username(), user.isActive(), user.role())
+    );
+}
@@ -0,0 +1,90 @@
+package gr.aueb.cf.springtaskrest.core.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import gr.aueb.cf.springtaskrest.core.enums.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes exported rows one at a time to an output stream, nothing but the current row is held in memory.
+ */
+public abstract class ExportWriter<T> implements Closeable {
+
+    public abstract void write(T row) throws IOException;
+
+    public static <T> ExportWriter<T> open(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper, ExportColumns<T> columns) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter<>(outputStream, objectMapper);
+            case CSV -> new CsvWriter<>(outputStream, columns);
+        };
+    }
+
+    private static class NdjsonWriter<T> extends ExportWriter<T> {
+        private final SequenceWriter writer;
+
+        private NdjsonWriter(OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+            this.writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream);
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            writer.write(row);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static class CsvWriter<T> extends ExportWriter<T> {
+        private final Writer writer;
+        private final ExportColumns<T> columns;
+
+        private CsvWriter(OutputStream outputStream, ExportColumns<T> columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            this.columns = columns;
+            writeLine(columns.header());
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            writeLine(columns.values().apply(row));
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private void writeLine(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) writer.write(',');
+                writer.write(escape(values.get(i)));
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks, doubling inner quotes.
+        // Text (not numbers) that a spreadsheet would evaluate as a formula is prefixed with a quote so it stays text.
+        private static String escape(Object value) {
+            if (value == null) return "";
+            String text = value.toString();
+            if (value instanceof CharSequence && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+}
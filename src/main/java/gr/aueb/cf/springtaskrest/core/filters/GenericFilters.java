@@ -1,5 +1,8 @@
 package gr.aueb.cf.springtaskrest.core.filters;
 
+import gr.aueb.cf.springtaskrest.core.enums.CountMode;
+import gr.aueb.cf.springtaskrest.core.enums.PaginationMode;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
@@ -11,6 +14,8 @@ import org.springframework.data.domain.Sort;
 @Setter
 public abstract class GenericFilters {
     private static final int DEFAULT_PAGE_SIZE = 10;
+    // Larger result sets are meant to go through the export endpoints, which stream instead of buffering a page
+    public static final int MAX_PAGE_SIZE = 100;
     private static final String DEFAULT_SORT_FIELD = "id";
     private static final Sort.Direction DEFAULT_SORT_DIRECTION = Sort.Direction.ASC;
 
@@ -18,9 +23,20 @@ public abstract class GenericFilters {
     private int size;
     private String sortBy;
     private Sort.Direction orderBy;
+    private PaginationMode paginationMode;
+    private String cursor;
+    private CountMode countMode;
 
     public int getPageSize() {
-        return size <= 0 ? DEFAULT_PAGE_SIZE : size;
+        if (size <= 0) return DEFAULT_PAGE_SIZE;
+        return size;
+    }
+
+    // Rejected rather than clamped, so that a client asking for more rows does not silently get fewer
+    public static void checkPageSize(int size) throws AppObjectInvalidArgumentException {
+        if (size > MAX_PAGE_SIZE) {
+            throw new AppObjectInvalidArgumentException("Filters", "Page size " + size + " exceeds the maximum of " + MAX_PAGE_SIZE);
+        }
     }
 
     public int getPage() {
@@ -44,4 +60,23 @@ public abstract class GenericFilters {
         return Sort.by(getSortDirection(), getSortField());
     }
 
+    public CountMode getCountMode() {
+        return countMode == null ? CountMode.EXACT : countMode;
+    }
+
+    public boolean isCursorMode() {
+        return paginationMode == PaginationMode.CURSOR;
+    }
+
+    /**
+     * First page of the keyset ordering; the position is carried by the cursor predicate, not by an offset.
+     */
+    public Pageable getKeysetPageable() {
+        Sort sort = getSort();
+        if (!DEFAULT_SORT_FIELD.equals(getSortField())) {
+            sort = sort.and(Sort.by(getSortDirection(), DEFAULT_SORT_FIELD));
+        }
+        return PageRequest.of(0, getPageSize(), sort);
+    }
+
 }
@@ -0,0 +1,70 @@
+package gr.aueb.cf.springtaskrest.core.filters;
+
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page: the value of the sort field plus the row id as a tie-breaker.
+ * Clients only see it as an opaque, URL-safe continuation token.
+ */
+public record KeysetCursor(
+        String sortField,
+        Sort.Direction direction,
+        Comparable<?> value,
+        Long id
+) {
+    private static final String SEPARATOR = "|";
+
+    public static KeysetCursor fromEntity(Object entity, String sortField, Sort.Direction direction) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        Long id = (Long) wrapper.getPropertyValue("id");
+        return new KeysetCursor(sortField, direction, (Comparable<?>) wrapper.getPropertyValue(sortField), id);
+    }
+
+    public static KeysetCursor decode(String token) throws AppObjectInvalidArgumentException {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|", 5);
+            if (parts.length != 5) throw new IllegalArgumentException("Malformed cursor");
+            return new KeysetCursor(parts[0], Sort.Direction.valueOf(parts[1]), parseValue(parts[3], parts[4]), Long.valueOf(parts[2]));
+        } catch (RuntimeException e) {
+            throw new AppObjectInvalidArgumentException("Cursor", "Cursor " + token + " is not valid");
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortField, direction.name(), String.valueOf(id), typeOf(value), String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean matches(String sortField, Sort.Direction direction) {
+        return this.sortField.equals(sortField) && this.direction == direction;
+    }
+
+    private static String typeOf(Object value) {
+        if (value instanceof String) return "S";
+        if (value instanceof Long) return "L";
+        if (value instanceof Integer) return "I";
+        if (value instanceof LocalDateTime) return "D";
+        if (value instanceof Instant) return "T";
+        throw new IllegalArgumentException("Unsupported keyset value type " + (value == null ? null : value.getClass()));
+    }
+
+    private static Comparable<?> parseValue(String type, String value) {
+        return switch (type) {
+            case "S" -> value;
+            case "L" -> Long.valueOf(value);
+            case "I" -> Integer.valueOf(value);
+            case "D" -> LocalDateTime.parse(value);
+            case "T" -> Instant.parse(value);
+            default -> throw new IllegalArgumentException("Unsupported keyset value type " + type);
+        };
+    }
+}
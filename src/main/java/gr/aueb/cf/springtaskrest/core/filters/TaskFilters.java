@@ -18,6 +18,9 @@ public class TaskFilters extends GenericFilters {
     @Nullable
     private String title;
 
+    @Nullable
+    private String search;
+
     @Nullable
     private List<TaskStatus> status;
 
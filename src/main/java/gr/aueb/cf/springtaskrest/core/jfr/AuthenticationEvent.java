@@ -0,0 +1,33 @@
+package gr.aueb.cf.springtaskrest.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("gr.aueb.cf.springtaskrest.Authentication")
+@Label("Request Authentication")
+@Description("Bearer token verification and principal load for one request")
+@Category({"Spring Task REST", "Security"})
+@StackTrace(false)
+public class AuthenticationEvent extends Event {
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Scope")
+    public String scope;
+
+    @Label("Outcome")
+    @Description("authenticated, invalid, expired, disabled or error")
+    public String outcome;
+
+    @Label("Token Verification")
+    @Timespan(Timespan.NANOSECONDS)
+    public long verifyDuration;
+}
@@ -0,0 +1,43 @@
+package gr.aueb.cf.springtaskrest.core.jfr;
+
+import gr.aueb.cf.springtaskrest.service.TaskService;
+import gr.aueb.cf.springtaskrest.service.UserService;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+/**
+ * Application-level JFR events. Record them with e.g. {@code jcmd <pid> JFR.start duration=60s filename=app.jfr};
+ * they appear under "Spring Task REST" in JDK Mission Control.
+ */
+@Configuration
+public class JfrEventsConfig {
+    private static final Set<Class<?>> RECORDED_SERVICES = Set.of(TaskService.class, UserService.class);
+
+    // Infrastructure role, so the advisor is applied by the same proxy creator as transactions.
+    // Highest precedence puts the event around the transaction, commit time included.
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceCallEventAdvisor() {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return RECORDED_SERVICES.contains(targetClass)
+                        && method.getDeclaringClass() != Object.class
+                        && Modifier.isPublic(method.getModifiers());
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new ServiceCallRecorder());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
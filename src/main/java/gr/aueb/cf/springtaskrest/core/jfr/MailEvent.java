@@ -0,0 +1,19 @@
+package gr.aueb.cf.springtaskrest.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("gr.aueb.cf.springtaskrest.Mail")
+@Label("Mail Send")
+@Category({"Spring Task REST", "Mail"})
+@StackTrace(false)
+public class MailEvent extends Event {
+    @Label("Type")
+    public String type;
+
+    @Label("Outcome")
+    public String outcome;
+}
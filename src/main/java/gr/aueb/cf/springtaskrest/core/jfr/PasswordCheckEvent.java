@@ -0,0 +1,22 @@
+package gr.aueb.cf.springtaskrest.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("gr.aueb.cf.springtaskrest.PasswordCheck")
+@Label("Password Check")
+@Description("Authentication manager call, dominated by the BCrypt comparison")
+@Category({"Spring Task REST", "Security"})
+@StackTrace(false)
+public class PasswordCheckEvent extends Event {
+    @Label("Purpose")
+    @Description("login or confirm (password change)")
+    public String purpose;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,35 @@
+package gr.aueb.cf.springtaskrest.core.jfr;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Whom a request acts for, derived from its path: the current user's own data, any user's data (admin),
+ * anonymous auth endpoints, or no request at all (background jobs).
+ */
+public final class RequestScope {
+    public static final String USER = "user";
+    public static final String ADMIN = "admin";
+    public static final String PUBLIC = "public";
+    public static final String BACKGROUND = "background";
+
+    private RequestScope() {
+    }
+
+    public static String of(String path) {
+        if (path.startsWith("/api/v1/users/me")) return USER;
+        if (path.startsWith("/api/v1/auth")) return PUBLIC;
+        if (path.startsWith("/api/v1/")) return ADMIN;
+        return PUBLIC;
+    }
+
+    /**
+     * The method and path of the request bound to the current thread, or {@code null} outside a request.
+     */
+    public static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+}
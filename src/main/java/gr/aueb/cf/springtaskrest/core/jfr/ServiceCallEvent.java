@@ -0,0 +1,35 @@
+package gr.aueb.cf.springtaskrest.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("gr.aueb.cf.springtaskrest.ServiceCall")
+@Label("Service Call")
+@Description("Public method of a task or user service, including its transaction")
+@Category({"Spring Task REST", "Service"})
+@StackTrace(false)
+public class ServiceCallEvent extends Event {
+    @Label("Service")
+    public String service;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Scope")
+    @Description("user, admin, public or background")
+    public String scope;
+
+    @Label("Result Size")
+    @Description("Elements returned, -1 for methods without a result")
+    public int resultSize;
+
+    @Label("Exception")
+    public String exception;
+}
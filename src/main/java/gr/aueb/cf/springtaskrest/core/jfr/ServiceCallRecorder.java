@@ -0,0 +1,59 @@
+package gr.aueb.cf.springtaskrest.core.jfr;
+
+import gr.aueb.cf.springtaskrest.core.etag.Versioned;
+import gr.aueb.cf.springtaskrest.dto.Paginated;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+import org.springframework.util.ClassUtils;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Wraps service methods in a {@link ServiceCallEvent}. While no recording has the event enabled this only costs
+ * the {@code isEnabled()} check; the dimensions are computed only for events that will be committed.
+ */
+public class ServiceCallRecorder implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.service = invocation.getThis() == null ? null : ClassUtils.getUserClass(invocation.getThis()).getSimpleName();
+                event.operation = invocation.getMethod().getName();
+                HttpServletRequest request = RequestScope.currentRequest();
+                event.endpoint = request == null ? null : request.getMethod() + " " + request.getRequestURI();
+                event.scope = request == null ? RequestScope.BACKGROUND : RequestScope.of(request.getRequestURI());
+                event.resultSize = invocation.getMethod().getReturnType() == void.class ? -1 : resultSize(result);
+                event.exception = failure == null ? null : failure.getClass().getSimpleName();
+                event.commit();
+            }
+        }
+    }
+
+    private static int resultSize(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof Paginated<?> paginated) return paginated.numberOfElements();
+        if (result instanceof Slice<?> slice) return slice.getNumberOfElements();
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        if (result instanceof Versioned<?> versioned) return versioned.body() == null ? 0 : 1;
+        return 1;
+    }
+}
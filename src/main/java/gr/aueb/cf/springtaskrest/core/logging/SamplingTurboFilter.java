@@ -0,0 +1,59 @@
+package gr.aueb.cf.springtaskrest.core.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps about one in {@code sampleRate} log calls of the configured loggers, up to {@code maxLevel}; more severe
+ * events always pass. Turbo filters run before the event is created, so a dropped call costs a level comparison,
+ * a prefix check and a random draw, with no formatting or allocation. Configured in {@code logback-spring.xml}:
+ * <pre>
+ * &lt;turboFilter class="gr.aueb.cf.springtaskrest.core.logging.SamplingTurboFilter"&gt;
+ *     &lt;loggers&gt;gr.aueb.cf.springtaskrest.rest&lt;/loggers&gt;
+ *     &lt;sampleRate&gt;100&lt;/sampleRate&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private String[] loggers = new String[0];
+    private int sampleRate = 1;
+    private Level maxLevel = Level.INFO;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // level is null when only the effective level is asked (isDebugEnabled() and the like)
+        if (sampleRate <= 1 || level == null || level.levelInt > maxLevel.levelInt || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(sampleRate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String name) {
+        for (String prefix : loggers) {
+            if (name.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    // Comma-separated logger names; each one also covers its child loggers
+    public void setLoggers(String loggers) {
+        this.loggers = Arrays.stream(loggers.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+    }
+}
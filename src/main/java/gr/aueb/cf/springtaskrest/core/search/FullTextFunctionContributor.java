@@ -0,0 +1,23 @@
+package gr.aueb.cf.springtaskrest.core.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code match_against(col1, col2, query)} so that specifications can use MySQL
+ * {@code MATCH ... AGAINST} in boolean mode. The function returns the relevance score, 0 when the row does not match.
+ * Registered through {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+    public static final String MATCH_AGAINST = "match_against";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                MATCH_AGAINST,
+                "match (?1, ?2) against (?3 in boolean mode)",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.DOUBLE)
+        );
+    }
+}
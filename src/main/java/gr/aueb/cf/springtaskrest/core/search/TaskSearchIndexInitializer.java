@@ -0,0 +1,48 @@
+package gr.aueb.cf.springtaskrest.core.search;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the FULLTEXT index behind task search, which {@code ddl-auto} cannot declare.
+ * InnoDB keeps the index up to date on every insert, update and delete of a task, in the same transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskSearchIndexInitializer implements ApplicationRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskSearchIndexInitializer.class);
+    public static final String INDEX_NAME = "ft_tasks_title_description";
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile boolean available;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            LOGGER.warn("Full-text task search needs MySQL, {} detected. The search filter will not be available.", product);
+            return;
+        }
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'tasks' AND index_name = ?",
+                Integer.class, INDEX_NAME);
+        if (existing == null || existing == 0) {
+            LOGGER.info("Creating full-text index {} on tasks", INDEX_NAME);
+            jdbcTemplate.execute("CREATE FULLTEXT INDEX `" + INDEX_NAME + "` ON `tasks` (`title`, `description`)");
+        }
+        available = true;
+    }
+
+    /**
+     * Whether the index exists, i.e. the search filter can be run.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,32 @@
+package gr.aueb.cf.springtaskrest.core.specifications;
+
+import gr.aueb.cf.springtaskrest.core.filters.KeysetCursor;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+public class KeysetSpecification {
+    private KeysetSpecification() {
+
+    }
+
+    /**
+     * Rows strictly after the cursor in (sortField, id) order, i.e.
+     * {@code sortField > value OR (sortField = value AND id > lastId)} for ascending order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Specification<T> after(KeysetCursor cursor) {
+        return ((root, query, builder) -> {
+            boolean ascending = cursor.direction() == Sort.Direction.ASC;
+            Path<Long> id = root.get("id");
+            Predicate idAfter = ascending ? builder.greaterThan(id, cursor.id()) : builder.lessThan(id, cursor.id());
+            if ("id".equals(cursor.sortField())) return idAfter;
+
+            Path<Comparable> field = root.get(cursor.sortField());
+            Comparable value = cursor.value();
+            Predicate fieldAfter = ascending ? builder.greaterThan(field, value) : builder.lessThan(field, value);
+            return builder.or(fieldAfter, builder.and(builder.equal(field, value), idAfter));
+        });
+    }
+}
@@ -1,12 +1,21 @@
 package gr.aueb.cf.springtaskrest.core.specifications;
 
 import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.core.search.FullTextFunctionContributor;
 import gr.aueb.cf.springtaskrest.model.Task;
 import gr.aueb.cf.springtaskrest.model.User;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Fetch;
 import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class TaskSpecification {
     private TaskSpecification() {
@@ -14,6 +23,22 @@ public class TaskSpecification {
     }
 
     private static final List<String> allowedFields = List.of("uuid", "title");
+    public static final List<String> keysetSortFields = List.of("id", "uuid", "title", "createdAt", "updatedAt");
+
+    /**
+     * Fetches the owning user (and its reset token, which is eager on User) in the same statement as the tasks.
+     * Must be the first specification of the chain so that the user filters below reuse its join.
+     * Count and projection queries cannot fetch, they get a plain join from the filters instead.
+     */
+    public static Specification<Task> fetchUser() {
+        return ((root, query, builder) -> {
+            if (isEntityQuery(query)) {
+                Fetch<Task, User> user = root.fetch("user", JoinType.INNER);
+                user.fetch("passwordResetToken", JoinType.LEFT);
+            }
+            return null;
+        });
+    }
 
     public static Specification<Task> tasksFieldLike(String field, String value) {
         return ((root, query, builder) -> {
@@ -23,10 +48,28 @@ public class TaskSpecification {
         });
     }
 
+    /**
+     * Full-text match on title and description, served by the FULLTEXT index instead of a LIKE scan.
+     * Every word of the search must appear, as a whole word or as a prefix. When {@code rankByRelevance}
+     * is set the best matches come first; the requested sort only breaks ties.
+     */
+    public static Specification<Task> tasksMatchSearch(String search, boolean rankByRelevance) {
+        return ((root, query, builder) -> {
+            String booleanQuery = toBooleanModeQuery(search);
+            if (booleanQuery == null) return builder.conjunction();
+            Expression<Double> relevance = builder.function(FullTextFunctionContributor.MATCH_AGAINST, Double.class,
+                    root.get("title"), root.get("description"), builder.literal(booleanQuery));
+            if (rankByRelevance && !isCountQuery(query)) {
+                query.orderBy(builder.desc(relevance));
+            }
+            return builder.greaterThan(relevance, 0.0);
+        });
+    }
+
     public static Specification<Task> tasksUserIsActive(Boolean isActive) {
         return ((root, query, builder) -> {
             if (isActive == null) return builder.conjunction();
-            Join<Task, User> user = root.join("user");
+            Join<Task, User> user = userJoin(root);
             return builder.equal(user.get("isActive"), isActive);
         });
     }
@@ -34,7 +77,7 @@ public class TaskSpecification {
     public static Specification<Task> tasksUserUuid(String uuid) {
         return ((root, query, builder) -> {
             if (uuid == null) return builder.conjunction();
-            Join<Task, User> user = root.join("user");
+            Join<Task, User> user = userJoin(root);
             return builder.equal(user.get("uuid"), uuid);
         });
     }
@@ -53,4 +96,49 @@ public class TaskSpecification {
         };
     }
 
+    // On the foreign key, no join to users
+    public static Specification<Task> tasksUserIdIn(Collection<Long> userIds) {
+        return (root, query, builder) -> root.get("user").get("id").in(userIds);
+    }
+
+    public static Specification<Task> taskUuidIn(Collection<String> uuids) {
+        return (root, query, builder) -> root.get("uuid").in(uuids);
+    }
+
+    /**
+     * Returns the join on {@code user} already present on the root, whether created by a filter or by
+     * {@link #fetchUser()}, so that combining user filters never produces a second join on users.
+     */
+    @SuppressWarnings("unchecked")
+    public static Join<Task, User> userJoin(Root<Task> root) {
+        for (Fetch<Task, ?> fetch : root.getFetches()) {
+            if (fetch.getAttribute().getName().equals("user") && fetch instanceof Join<?, ?>) {
+                return (Join<Task, User>) fetch;
+            }
+        }
+        for (Join<Task, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals("user")) {
+                return (Join<Task, User>) join;
+            }
+        }
+        return root.join("user");
+    }
+
+    // Splits on anything that is not a letter or digit, which also drops the boolean mode operators
+    private static String toBooleanModeQuery(String search) {
+        if (search == null || search.isBlank()) return null;
+        String booleanQuery = Arrays.stream(search.split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .map(term -> "+" + term + "*")
+                .collect(Collectors.joining(" "));
+        return booleanQuery.isEmpty() ? null : booleanQuery;
+    }
+
+    private static boolean isCountQuery(CriteriaQuery<?> query) {
+        return query.getResultType() == Long.class || query.getResultType() == long.class;
+    }
+
+    private static boolean isEntityQuery(CriteriaQuery<?> query) {
+        return query.getResultType() == Task.class;
+    }
 }
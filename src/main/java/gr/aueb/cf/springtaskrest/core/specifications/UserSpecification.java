@@ -2,6 +2,7 @@ package gr.aueb.cf.springtaskrest.core.specifications;
 
 import gr.aueb.cf.springtaskrest.core.enums.Role;
 import gr.aueb.cf.springtaskrest.model.User;
+import jakarta.persistence.criteria.JoinType;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
@@ -12,6 +13,20 @@ public class UserSpecification {
     }
 
     private static final List<String> allowedFields = List.of("uuid", "username");
+    public static final List<String> keysetSortFields = List.of("id", "uuid", "username", "createdAt", "updatedAt");
+
+    /**
+     * Fetches the reset token, which is eager on User and would otherwise be loaded by one select per user.
+     * Count and projection queries cannot fetch and are left as they are.
+     */
+    public static Specification<User> fetchPasswordResetToken() {
+        return ((root, query, builder) -> {
+            if (query.getResultType() == User.class) {
+                root.fetch("passwordResetToken", JoinType.LEFT);
+            }
+            return null;
+        });
+    }
 
     public static Specification<User> usersFieldLike(String field, String value) {
         return ((root, query, builder) -> {
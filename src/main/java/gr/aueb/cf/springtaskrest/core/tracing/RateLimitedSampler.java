@@ -0,0 +1,56 @@
+package gr.aueb.cf.springtaskrest.core.tracing;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples root spans by trace id ratio, but never more than {@code maxPerSecond} of them in any second, so that the
+ * cost of tracing stops growing with the request rate. Meant to be wrapped in {@link Sampler#parentBased(Sampler)},
+ * which keeps whole traces together.
+ */
+class RateLimitedSampler implements Sampler {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Sampler ratioSampler;
+    private final int maxPerSecond;
+    // Start of the current one-second window and the number of traces sampled in it
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong sampledInWindow = new AtomicLong();
+
+    RateLimitedSampler(double probability, int maxPerSecond) {
+        this.ratioSampler = Sampler.traceIdRatioBased(probability);
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        SamplingResult result = ratioSampler.shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+        if (result.getDecision() != SamplingDecision.RECORD_AND_SAMPLE || maxPerSecond <= 0 || acquire()) {
+            return result;
+        }
+        return SamplingResult.drop();
+    }
+
+    @Override
+    public String getDescription() {
+        return "RateLimitedSampler{" + ratioSampler.getDescription() + ", maxPerSecond=" + maxPerSecond + "}";
+    }
+
+    private boolean acquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= NANOS_PER_SECOND && windowStart.compareAndSet(start, now)) {
+            sampledInWindow.set(0);
+        }
+        return sampledInWindow.incrementAndGet() <= maxPerSecond;
+    }
+}
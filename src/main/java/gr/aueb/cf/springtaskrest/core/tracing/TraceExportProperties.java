@@ -0,0 +1,21 @@
+package gr.aueb.cf.springtaskrest.core.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sampling cap and file export of traces. The sampling probability itself is Boot's
+ * {@code management.tracing.sampling.probability}; OTLP export is enabled by {@code management.otlp.tracing.endpoint}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.tracing")
+public class TraceExportProperties {
+    // Upper bound of new traces started per second, whatever the probability; 0 or less removes the cap
+    private int maxTracesPerSecond = 100;
+    // When set, finished spans are also appended to this file, one JSON object per line
+    private String file;
+}
@@ -0,0 +1,37 @@
+package gr.aueb.cf.springtaskrest.core.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.tracing.TracingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Spans come from Micrometer observations bridged to OpenTelemetry: HTTP server requests (controllers),
+ * {@code @Observed} services, JDBC statements (datasource-micrometer) and mail sending. Boot batches the
+ * exporters below together with the OTLP one.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class TracingConfig {
+    private final TraceExportProperties traceExportProperties;
+
+    // Replaces Boot's plain ratio sampler
+    @Bean
+    public Sampler otelSampler(TracingProperties tracingProperties) {
+        return Sampler.parentBased(new RateLimitedSampler(
+                tracingProperties.getSampling().getProbability(), traceExportProperties.getMaxTracesPerSecond()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tracing", name = "file")
+    public SpanExporter fileSpanExporter(ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(Path.of(traceExportProperties.getFile()), objectMapper);
+    }
+}
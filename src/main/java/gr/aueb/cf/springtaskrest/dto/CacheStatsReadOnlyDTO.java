@@ -0,0 +1,11 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+public record CacheStatsReadOnlyDTO(
+        String name,
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount
+) {
+}
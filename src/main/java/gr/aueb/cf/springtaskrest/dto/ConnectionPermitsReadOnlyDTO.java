@@ -0,0 +1,9 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+public record ConnectionPermitsReadOnlyDTO(
+        String pool,
+        int permits,
+        int available,
+        int waiting
+) {
+}
@@ -1,19 +1,36 @@
 package gr.aueb.cf.springtaskrest.dto;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
 public record Paginated<T> (
             List<T> data,
-            long totalItems,
-            int totalPages,
+            Long totalItems,
+            Integer totalPages,
             int numberOfElements,
             int currentPage,
-            int pageSize
+            int pageSize,
+            boolean hasNext,
+            String nextCursor
         ){
     public Paginated(Page<T> page) {
-        this(page.getContent(), page.getTotalElements(), page.getTotalPages(), page.getNumber(), page.getPageable().getPageNumber(), page.getNumberOfElements());
+        this(page.getContent(), page.getTotalElements(), page.getTotalPages(), page.getNumberOfElements(), page.getNumber(), page.getSize(), page.hasNext(), null);
+    }
+
+    /**
+     * A page fetched without a count query; {@code totalItems} may be null when no total is known.
+     */
+    public static <T> Paginated<T> ofSlice(Slice<T> slice, Long totalItems) {
+        Integer totalPages = totalItems == null ? null : (int) Math.ceil((double) totalItems / slice.getSize());
+        return new Paginated<>(slice.getContent(), totalItems, totalPages, slice.getNumberOfElements(), slice.getNumber(), slice.getSize(), slice.hasNext(), null);
     }
-}
 
+    /**
+     * A keyset page: totals are not computed, {@code nextCursor} continues after the last element.
+     */
+    public static <T> Paginated<T> ofCursor(List<T> data, int pageSize, String nextCursor) {
+        return new Paginated<>(data, null, null, data.size(), 0, pageSize, nextCursor != null, nextCursor);
+    }
+}
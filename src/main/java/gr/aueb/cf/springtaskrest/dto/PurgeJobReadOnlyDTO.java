@@ -0,0 +1,14 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+import java.time.Instant;
+
+public record PurgeJobReadOnlyDTO(
+        String id,
+        String target,
+        String status,
+        long deleted,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+}
@@ -0,0 +1,9 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+public record TaskBulkItemResultDTO(
+        int index,
+        String status,
+        TaskReadOnlyDTO task,
+        String message
+) {
+}
@@ -0,0 +1,10 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+import java.util.List;
+
+public record TaskBulkResultDTO(
+        int created,
+        int rejected,
+        List<TaskBulkItemResultDTO> items
+) {
+}
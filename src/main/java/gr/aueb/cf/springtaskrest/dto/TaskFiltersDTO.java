@@ -10,27 +10,31 @@ public record TaskFiltersDTO(
         String orderBy,
         String uuid,
         String title,
+        String search,
         List<String> taskStatus,
         Boolean userIsActive,
-        String userUuid
+        String userUuid,
+        String paginationMode,
+        String cursor,
+        String countMode
 ) {
     public TaskFiltersDTO() {
-        this(null, null, null, null,null, null, null, null, null);
+        this(null, null, null, null, null, null, null, null, null, null, null, null, null);
     }
 
     public TaskFiltersDTO(Integer page, Integer size) {
-        this(page, size, null, null, null, null,null,null, null);
+        this(page, size, null, null, null, null, null, null, null, null, null, null, null);
     }
 
     public TaskFiltersDTO(Integer page, Integer size, String userUuid) {
-        this(page, size, null, null, null, null,null,null, userUuid);
+        this(page, size, null, null, null, null, null, null, null, userUuid, null, null, null);
     }
 
     public TaskFiltersDTO(String userUuid) {
-        this(null, null, null, null, null, null,null,null, userUuid);
+        this(null, null, null, null, null, null, null, null, null, userUuid, null, null, null);
     }
 
     public TaskFiltersDTO(TaskFiltersDTO dto, String userUuid) {
-        this(dto.page, dto.size, dto.sortBy, dto.orderBy, dto.uuid, dto.title, dto.taskStatus, dto.userIsActive, userUuid);
+        this(dto.page, dto.size, dto.sortBy, dto.orderBy, dto.uuid, dto.title, dto.search, dto.taskStatus, dto.userIsActive, userUuid, dto.paginationMode, dto.cursor, dto.countMode);
     }
 }
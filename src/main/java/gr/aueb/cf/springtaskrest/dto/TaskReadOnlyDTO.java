@@ -1,5 +1,8 @@
 package gr.aueb.cf.springtaskrest.dto;
 
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+
 public record TaskReadOnlyDTO(
         Long id,
         String uuid,
@@ -8,4 +11,9 @@ public record TaskReadOnlyDTO(
         String status,
         UserReadOnlyDTO user
 ) {
+    // Used by JPQL/criteria constructor expressions, which cannot build the nested user on their own
+    public TaskReadOnlyDTO(Long id, String uuid, String title, String description, TaskStatus status,
+                           Long userId, String userUuid, String username, Boolean userIsActive, Role userRole) {
+        this(id, uuid, title, description, status.name(), new UserReadOnlyDTO(userId, userUuid, username, userIsActive, userRole));
+    }
 }
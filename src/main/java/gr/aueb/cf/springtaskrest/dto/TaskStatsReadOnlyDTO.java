@@ -0,0 +1,9 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+import java.util.Map;
+
+public record TaskStatsReadOnlyDTO(
+        long total,
+        Map<String, Long> byStatus
+) {
+}
@@ -0,0 +1,16 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+
+public record TaskStatusUpdateDTO(
+        TaskFiltersDTO filters,
+
+        @NotNull(message = "Status cannot be null")
+        @Pattern(regexp = "^(OPEN|ONGOING|COMPLETED|FAILED|CANCELLED)$")
+        String status
+) {
+    public TaskStatusUpdateDTO(TaskStatusUpdateDTO dto, String userUuid) {
+        this(new TaskFiltersDTO(dto.filters == null ? new TaskFiltersDTO() : dto.filters, userUuid), dto.status);
+    }
+}
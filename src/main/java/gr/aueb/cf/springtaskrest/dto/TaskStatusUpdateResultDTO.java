@@ -0,0 +1,7 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+public record TaskStatusUpdateResultDTO(
+        String status,
+        long updated
+) {
+}
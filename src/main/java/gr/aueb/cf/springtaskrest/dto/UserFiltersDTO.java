@@ -8,9 +8,12 @@ public record UserFiltersDTO(
     String uuid,
     String username,
     String role,
-    Boolean active
+    Boolean active,
+    String paginationMode,
+    String cursor,
+    String countMode
 ) {
     public UserFiltersDTO() {
-        this(null, null, null, null, null, null, null, null);
+        this(null, null, null, null, null, null, null, null, null, null, null);
     }
 }
@@ -1,5 +1,7 @@
 package gr.aueb.cf.springtaskrest.dto;
 
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+
 public record UserReadOnlyDTO(
         Long id,
         String uuid,
@@ -7,4 +9,8 @@ public record UserReadOnlyDTO(
         Boolean isActive,
         String role
 ) {
+    // Used by JPQL/criteria constructor expressions, which select the role as the mapped enum
+    public UserReadOnlyDTO(Long id, String uuid, String username, Boolean isActive, Role role) {
+        this(id, uuid, username, isActive, role.name());
+    }
 }
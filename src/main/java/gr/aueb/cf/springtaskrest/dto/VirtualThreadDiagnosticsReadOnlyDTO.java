@@ -0,0 +1,14 @@
+package gr.aueb.cf.springtaskrest.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record VirtualThreadDiagnosticsReadOnlyDTO(
+        boolean virtualThreads,
+        long pinnedEvents,
+        long pinnedMillis,
+        long maxPinnedMillis,
+        Map<String, Long> pinnedSites,
+        List<ConnectionPermitsReadOnlyDTO> pools
+) {
+}
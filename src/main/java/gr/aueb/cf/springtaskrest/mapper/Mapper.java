@@ -1,5 +1,7 @@
 package gr.aueb.cf.springtaskrest.mapper;
 
+import gr.aueb.cf.springtaskrest.core.enums.CountMode;
+import gr.aueb.cf.springtaskrest.core.enums.PaginationMode;
 import gr.aueb.cf.springtaskrest.core.enums.Role;
 import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
 import gr.aueb.cf.springtaskrest.core.filters.TaskFilters;
@@ -81,8 +83,12 @@ public class Mapper {
     }
 
     public TaskReadOnlyDTO mapToTaskReadOnly(Task task) {
-        UserReadOnlyDTO userReadOnlyDTO = mapToUserReadOnly(task.getUser());
-        return new TaskReadOnlyDTO(task.getId(), task.getUuid(), task.getTitle(), task.getDescription(), task.getStatus().name(), userReadOnlyDTO);
+        return mapToTaskReadOnly(task, mapToUserReadOnly(task.getUser()));
+    }
+
+    // With the owner already at hand, the task's user association is not touched
+    public TaskReadOnlyDTO mapToTaskReadOnly(Task task, UserReadOnlyDTO user) {
+        return new TaskReadOnlyDTO(task.getId(), task.getUuid(), task.getTitle(), task.getDescription(), task.getStatus().name(), user);
     }
 
     public UserFilters mapToUserFilters(UserFiltersDTO dto) {
@@ -111,6 +117,15 @@ public class Mapper {
         if (dto.uuid() != null) {
             userFilters.setUuid(dto.uuid());
         }
+        if (dto.paginationMode() != null) {
+            userFilters.setPaginationMode(PaginationMode.valueOf(dto.paginationMode()));
+        }
+        if (dto.cursor() != null) {
+            userFilters.setCursor(dto.cursor());
+        }
+        if (dto.countMode() != null) {
+            userFilters.setCountMode(CountMode.valueOf(dto.countMode()));
+        }
         return userFilters;
     }
 
@@ -138,6 +153,9 @@ public class Mapper {
         if (dto.title() != null) {
             taskFilters.setTitle(dto.title());
         }
+        if (dto.search() != null) {
+            taskFilters.setSearch(dto.search());
+        }
         if (dto.userIsActive() != null) {
             taskFilters.setUserIsActive(dto.userIsActive());
         }
@@ -147,6 +165,15 @@ public class Mapper {
         if (dto.userUuid() != null) {
             taskFilters.setUserUuid(dto.userUuid());
         }
+        if (dto.paginationMode() != null) {
+            taskFilters.setPaginationMode(PaginationMode.valueOf(dto.paginationMode()));
+        }
+        if (dto.cursor() != null) {
+            taskFilters.setCursor(dto.cursor());
+        }
+        if (dto.countMode() != null) {
+            taskFilters.setCountMode(CountMode.valueOf(dto.countMode()));
+        }
         return taskFilters;
     }
 }
@@ -0,0 +1,29 @@
+package gr.aueb.cf.springtaskrest.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Number of tasks a user has in one status. Kept up to date by every task write, so task statistics are
+ * read from a handful of rows instead of counting the tasks table.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "task_status_counters")
+public class TaskStatusCounter {
+
+    @EmbeddedId
+    private TaskStatusCounterId id;
+
+    @Column(name = "task_count", nullable = false)
+    private Long taskCount;
+}
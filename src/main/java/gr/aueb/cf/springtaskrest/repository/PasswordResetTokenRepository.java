@@ -3,10 +3,18 @@ package gr.aueb.cf.springtaskrest.repository;
 import gr.aueb.cf.springtaskrest.model.PasswordResetToken;
 import gr.aueb.cf.springtaskrest.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
 
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
     Optional<PasswordResetToken> findByToken(String token);
     Optional<PasswordResetToken> findByUser(User user);
+
+    @Modifying
+    @Query("DELETE FROM PasswordResetToken t WHERE t.user.id IN :userIds")
+    void deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
@@ -0,0 +1,148 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Specification queries that {@link org.springframework.data.jpa.repository.JpaSpecificationExecutor} does not offer:
+ * slices without a count query, and projections of arbitrary selections (e.g. constructor expressions into DTOs).
+ */
+abstract class SpecificationQuerySupport<T> {
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final Class<T> domainClass;
+
+    protected SpecificationQuerySupport(Class<T> domainClass) {
+        this.domainClass = domainClass;
+    }
+
+    @FunctionalInterface
+    protected interface SelectionFactory<T, R> {
+        Selection<? extends R> select(Root<T> root, CriteriaBuilder builder);
+    }
+
+    public Slice<T> findSlice(Specification<T> spec, Pageable pageable) {
+        return findSlice(spec, pageable, domainClass, (root, builder) -> root);
+    }
+
+    /**
+     * Fetches one extra row to know whether a next page exists, no count query is issued.
+     */
+    protected <R> Slice<R> findSlice(Specification<T> spec, Pageable pageable, Class<R> resultClass, SelectionFactory<T, R> selection) {
+        List<R> content = createQuery(spec, pageable.getSort(), resultClass, selection)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    protected <R> Page<R> findPage(Specification<T> spec, Pageable pageable, Class<R> resultClass, SelectionFactory<T, R> selection) {
+        List<R> content = createQuery(spec, pageable.getSort(), resultClass, selection)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    protected <R> List<R> findAll(Specification<T> spec, Sort sort, Class<R> resultClass, SelectionFactory<T, R> selection) {
+        return createQuery(spec, sort, resultClass, selection).getResultList();
+    }
+
+    /**
+     * Forward-only stream over the results, read from the database {@value #STREAM_FETCH_SIZE} rows at a time
+     * (row by row on MySQL).
+     * Must be consumed and closed inside a transaction, and the connection runs no other statement until then.
+     */
+    protected <R> Stream<R> stream(Specification<T> spec, Sort sort, Class<R> resultClass, SelectionFactory<T, R> selection) {
+        return createQuery(spec, sort, resultClass, selection)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    // Connector/J ignores positive fetch sizes unless useCursorFetch is set for the whole pool, which turns every
+    // statement into a server-side prepared one. Integer.MIN_VALUE streams this statement's rows one by one instead.
+    private int streamFetchSize() {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        return dialect instanceof MySQLDialect && !(dialect instanceof MariaDBDialect) ? Integer.MIN_VALUE : STREAM_FETCH_SIZE;
+    }
+
+    /**
+     * Next chunk of ids matching the specification, in id order, for set-based operations that work through
+     * large sets a chunk at a time without loading entities.
+     */
+    protected List<Long> findIdsAfter(Specification<T> spec, long lastId, int limit) {
+        Specification<T> afterLastId = spec.and((root, query, builder) -> builder.greaterThan(root.get("id"), lastId));
+        CriteriaQuery<Long> query = createCriteriaQuery(afterLastId, Sort.unsorted(), Long.class, (root, builder) -> root.get("id"));
+        // Strictly by id: an order set by the specification (e.g. search relevance) would make the last id of a chunk
+        // not its highest one, and the next chunk would skip rows
+        Root<?> root = query.getRoots().iterator().next();
+        query.orderBy(entityManager.getCriteriaBuilder().asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    protected long count(Specification<T> spec) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(builder.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private <R> TypedQuery<R> createQuery(Specification<T> spec, Sort sort, Class<R> resultClass, SelectionFactory<T, R> selection) {
+        return entityManager.createQuery(createCriteriaQuery(spec, sort, resultClass, selection));
+    }
+
+    // The specification is applied before the selection, so selections can reuse the joins created by the filters
+    private <R> CriteriaQuery<R> createCriteriaQuery(Specification<T> spec, Sort sort, Class<R> resultClass, SelectionFactory<T, R> selection) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = builder.createQuery(resultClass);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = spec.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(selection.select(root, builder));
+        if (sort.isSorted()) {
+            // Orders set by the specification (e.g. search relevance) take precedence over the requested sort
+            List<Order> orders = new ArrayList<>(query.getOrderList());
+            orders.addAll(QueryUtils.toOrders(sort, root, builder));
+            query.orderBy(orders);
+        }
+        return query;
+    }
+}
@@ -4,16 +4,37 @@ import gr.aueb.cf.springtaskrest.model.Task;
 import gr.aueb.cf.springtaskrest.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
+    @EntityGraph(attributePaths = {"user", "user.passwordResetToken"})
     Optional<Task> findByUuid(String uuid);
     Optional<Task> findByTitleAndUser(String title, User user);
+    @EntityGraph(attributePaths = {"user", "user.passwordResetToken"})
     Optional<Task> findByUuidAndUser(String uuid, User user);
     Page<Task> findByUserUuid(String uuid, Pageable pageable);
     Optional<Task> findByTitleAndUserUuid(String title, String userUuid);
-    void deleteByUserUuid(String userUuid);
+    Optional<Task> findByTitleAndUserId(String title, Long userId);
+    boolean existsByTitleAndUserId(String title, Long userId);
+
+    // Case-insensitive whatever the collation, the given titles must already be lower case
+    @Query("SELECT t.title FROM Task t WHERE t.user.id = :userId AND LOWER(t.title) IN :titles")
+    List<String> findTitlesByUserIdAndLowerTitleIn(@Param("userId") Long userId, @Param("titles") Collection<String> titles);
+
+    @Query("SELECT t FROM Task t JOIN FETCH t.user u LEFT JOIN FETCH u.passwordResetToken WHERE t.uuid = :uuid AND u.id = :userId")
+    Optional<Task> findByUuidAndUserId(@Param("uuid") String uuid, @Param("userId") Long userId);
+
+    @Query("SELECT new gr.aueb.cf.springtaskrest.repository.TaskVersion(t.version, u.version) FROM Task t JOIN t.user u WHERE t.uuid = :uuid AND u.id = :userId")
+    Optional<TaskVersion> findVersionByUuidAndUserId(@Param("uuid") String uuid, @Param("userId") Long userId);
+
+    @Query("SELECT new gr.aueb.cf.springtaskrest.repository.TaskVersion(t.version, u.version) FROM Task t JOIN t.user u WHERE t.uuid = :uuid AND u.uuid = :userUuid")
+    Optional<TaskVersion> findVersionByUuidAndUserUuid(@Param("uuid") String uuid, @Param("userUuid") String userUuid);
 }
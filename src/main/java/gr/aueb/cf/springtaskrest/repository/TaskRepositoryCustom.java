@@ -0,0 +1,42 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.dto.TaskReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.model.Task;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TaskRepositoryCustom {
+    Slice<Task> findSlice(Specification<Task> spec, Pageable pageable);
+
+    // Read-only projections, only the DTO columns are selected and no entity is managed
+    Page<TaskReadOnlyDTO> findReadOnlyPage(Specification<Task> spec, Pageable pageable);
+    Slice<TaskReadOnlyDTO> findReadOnlySlice(Specification<Task> spec, Pageable pageable);
+    List<TaskReadOnlyDTO> findReadOnlyAll(Specification<Task> spec, Sort sort);
+    Stream<TaskReadOnlyDTO> streamReadOnly(Specification<Task> spec, Sort sort);
+
+    /**
+     * Inserts the tasks for the user with JDBC batches, bypassing the persistence context.
+     * Assigns uuid and audit timestamps to the given tasks; ids are not read back.
+     */
+    void batchInsert(Long userId, List<Task> tasks);
+
+    /**
+     * Moves the next chunk of matching tasks with an id above {@code afterId} that are not already in the given
+     * status to it, with one UPDATE statement. Runs in the caller's transaction, so that a bulk update can commit
+     * chunk by chunk, starting from {@code afterId} 0 and continuing from each chunk's {@code lastId}.
+     */
+    TaskStatusUpdateChunk updateStatusChunk(Specification<Task> spec, TaskStatus status, long afterId);
+
+    /**
+     * Deletes up to {@code limit} matching tasks with one DELETE statement, in the caller's transaction.
+     * Returns how many tasks were deleted, per user and status; empty once no matching task is left.
+     */
+    List<TaskStatusChange> deleteChunk(Specification<Task> spec, int limit);
+}
@@ -0,0 +1,116 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.core.specifications.TaskSpecification;
+import gr.aueb.cf.springtaskrest.dto.TaskReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.model.Task;
+import gr.aueb.cf.springtaskrest.model.User;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class TaskRepositoryCustomImpl extends SpecificationQuerySupport<Task> implements TaskRepositoryCustom {
+    private static final SelectionFactory<Task, TaskReadOnlyDTO> readOnlySelection = (root, builder) -> {
+        Join<Task, User> user = TaskSpecification.userJoin(root);
+        return builder.construct(TaskReadOnlyDTO.class,
+                root.get("id"), root.get("uuid"), root.get("title"), root.get("description"), root.get("status"),
+                user.get("id"), user.get("uuid"), user.get("username"), user.get("isActive"), user.get("role"));
+    };
+
+    // IDENTITY ids keep Hibernate from batching inserts, JDBC batches are rewritten into multi-row inserts by the driver
+    private static final String INSERT_SQL = "INSERT INTO `tasks` (`uuid`, `title`, `description`, `status`, `user_id`, `created_at`, `updated_at`, `version`) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final int INSERT_BATCH_SIZE = 500;
+    // MySQL cannot update tasks from a subquery on tasks, so matching ids are selected first and updated per chunk
+    private static final int UPDATE_CHUNK_SIZE = 1_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        super(Task.class);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Page<TaskReadOnlyDTO> findReadOnlyPage(Specification<Task> spec, Pageable pageable) {
+        return findPage(spec, pageable, TaskReadOnlyDTO.class, readOnlySelection);
+    }
+
+    @Override
+    public Slice<TaskReadOnlyDTO> findReadOnlySlice(Specification<Task> spec, Pageable pageable) {
+        return findSlice(spec, pageable, TaskReadOnlyDTO.class, readOnlySelection);
+    }
+
+    @Override
+    public List<TaskReadOnlyDTO> findReadOnlyAll(Specification<Task> spec, Sort sort) {
+        return findAll(spec, sort, TaskReadOnlyDTO.class, readOnlySelection);
+    }
+
+    @Override
+    public Stream<TaskReadOnlyDTO> streamReadOnly(Specification<Task> spec, Sort sort) {
+        return stream(spec, sort, TaskReadOnlyDTO.class, readOnlySelection);
+    }
+
+    @Override
+    public void batchInsert(Long userId, List<Task> tasks) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            if (task.getUuid() == null) task.setUuid(UUID.randomUUID().toString());
+            task.setCreatedAt(now);
+            task.setUpdatedAt(now);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, tasks, INSERT_BATCH_SIZE, (ps, task) -> {
+            ps.setString(1, task.getUuid());
+            ps.setString(2, task.getTitle());
+            ps.setString(3, task.getDescription());
+            ps.setString(4, task.getStatus() == null ? null : task.getStatus().name());
+            ps.setLong(5, userId);
+            ps.setTimestamp(6, Timestamp.valueOf(task.getCreatedAt()));
+            ps.setTimestamp(7, Timestamp.valueOf(task.getUpdatedAt()));
+        });
+    }
+
+    @Override
+    public TaskStatusUpdateChunk updateStatusChunk(Specification<Task> spec, TaskStatus status, long afterId) {
+        Specification<Task> notInStatus = spec.and((root, query, builder) -> builder.notEqual(root.get("status"), status));
+        List<Long> ids = findIdsAfter(notInStatus, afterId, UPDATE_CHUNK_SIZE);
+        if (ids.isEmpty()) return new TaskStatusUpdateChunk(List.of(), afterId, true);
+        // What is about to change, per user and previous status, for the task statistics
+        List<TaskStatusChange> changes = findStatusCounts(ids);
+        entityManager.createQuery("UPDATE Task t SET t.status = :status, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id IN :ids")
+                .setParameter("status", status)
+                .setParameter("now", LocalDateTime.now())
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return new TaskStatusUpdateChunk(changes, ids.get(ids.size() - 1), ids.size() < UPDATE_CHUNK_SIZE);
+    }
+
+    @Override
+    public List<TaskStatusChange> deleteChunk(Specification<Task> spec, int limit) {
+        List<Long> ids = findIdsAfter(spec, 0, limit);
+        if (ids.isEmpty()) return List.of();
+        // What is about to go, per user and status, for the task statistics
+        List<TaskStatusChange> changes = findStatusCounts(ids);
+        entityManager.createQuery("DELETE FROM Task t WHERE t.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return changes;
+    }
+
+    private List<TaskStatusChange> findStatusCounts(List<Long> ids) {
+        return entityManager.createQuery(
+                        "SELECT new gr.aueb.cf.springtaskrest.repository.TaskStatusChange(t.user.id, t.status, COUNT(t)) " +
+                                "FROM Task t WHERE t.id IN :ids GROUP BY t.user.id, t.status", TaskStatusChange.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+}
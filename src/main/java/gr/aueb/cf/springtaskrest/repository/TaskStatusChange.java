@@ -0,0 +1,9 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+
+/**
+ * {@code count} tasks of the user moved away from status {@code from} by a bulk update.
+ */
+public record TaskStatusChange(Long userId, TaskStatus from, Long count) {
+}
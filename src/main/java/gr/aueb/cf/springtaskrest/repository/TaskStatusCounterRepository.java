@@ -0,0 +1,37 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.model.TaskStatusCounter;
+import gr.aueb.cf.springtaskrest.model.TaskStatusCounterId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TaskStatusCounterRepository extends JpaRepository<TaskStatusCounter, TaskStatusCounterId> {
+    List<TaskStatusCounter> findByIdUserId(Long userId);
+
+    // Atomic in MySQL, concurrent writers of the same user never lose an increment
+    @Modifying
+    @Query(value = "INSERT INTO task_status_counters (user_id, status, task_count) VALUES (:userId, :status, :delta) " +
+            "ON DUPLICATE KEY UPDATE task_count = task_count + :delta", nativeQuery = true)
+    void increment(@Param("userId") Long userId, @Param("status") String status, @Param("delta") long delta);
+
+    @Query("SELECT c.id.status, SUM(c.taskCount) FROM TaskStatusCounter c GROUP BY c.id.status")
+    List<Object[]> sumByStatus();
+
+    @Modifying
+    @Query("DELETE FROM TaskStatusCounter c WHERE c.id.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM TaskStatusCounter c WHERE c.id.userId IN :userIds")
+    void deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO task_status_counters (user_id, status, task_count) " +
+            "SELECT user_id, status, COUNT(*) FROM tasks WHERE status IS NOT NULL GROUP BY user_id, status", nativeQuery = true)
+    int insertFromTasks();
+}
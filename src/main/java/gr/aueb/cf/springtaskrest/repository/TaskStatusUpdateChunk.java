@@ -0,0 +1,14 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import java.util.List;
+
+/**
+ * One chunk of a bulk status update: the changes it made and the highest task id it covered, from which the
+ * next chunk continues. {@code last} is set once no matching task is left after it.
+ */
+public record TaskStatusUpdateChunk(List<TaskStatusChange> changes, long lastId, boolean last) {
+
+    public long updated() {
+        return changes.stream().mapToLong(TaskStatusChange::count).sum();
+    }
+}
@@ -0,0 +1,12 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.core.etag.ETags;
+
+/**
+ * Versions a task representation depends on: the task itself and its owner, which is embedded in it.
+ */
+public record TaskVersion(Long taskVersion, Long userVersion) {
+    public String toETag() {
+        return ETags.of(taskVersion, userVersion);
+    }
+}
@@ -1,18 +1,45 @@
 package gr.aueb.cf.springtaskrest.repository;
 
+import gr.aueb.cf.springtaskrest.authentication.PrincipalState;
 import gr.aueb.cf.springtaskrest.core.enums.Role;
+import gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO;
 import gr.aueb.cf.springtaskrest.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> , JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long> , JpaSpecificationExecutor<User>, UserRepositoryCustom {
     Optional<User> findByUsername(String username);
     Optional<User> findByUuid(String uuid);
     Page<User> findByRole(Role role, Pageable pageable);
     Page<User> findByIsActive(Boolean isActive, Pageable pageable);
+
+    @Query("SELECT new gr.aueb.cf.springtaskrest.authentication.PrincipalState(u.id, u.uuid, u.username, u.role, u.isActive, u.lastPasswordChange) " +
+            "FROM User u WHERE u.username = :username")
+    Optional<PrincipalState> findPrincipalStateByUsername(@Param("username") String username);
+
+    @Query("SELECT new gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO(u.id, u.uuid, u.username, u.isActive, u.role) FROM User u WHERE u.uuid = :uuid")
+    Optional<UserReadOnlyDTO> findReadOnlyByUuid(@Param("uuid") String uuid);
+
+    @Query("SELECT new gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO(u.id, u.uuid, u.username, u.isActive, u.role) FROM User u WHERE u.username = :username")
+    Optional<UserReadOnlyDTO> findReadOnlyByUsername(@Param("username") String username);
+
+    // Locked, so that no task or reset token can reference these users until the purge deleting them commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findIdsForDeletion(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
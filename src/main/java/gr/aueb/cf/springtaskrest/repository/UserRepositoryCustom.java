@@ -0,0 +1,22 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface UserRepositoryCustom {
+    Slice<User> findSlice(Specification<User> spec, Pageable pageable);
+
+    // Read-only projections, only the DTO columns are selected and no entity is managed
+    Page<UserReadOnlyDTO> findReadOnlyPage(Specification<User> spec, Pageable pageable);
+    Slice<UserReadOnlyDTO> findReadOnlySlice(Specification<User> spec, Pageable pageable);
+    List<UserReadOnlyDTO> findReadOnlyAll(Specification<User> spec, Sort sort);
+    Stream<UserReadOnlyDTO> streamReadOnly(Specification<User> spec, Sort sort);
+}
@@ -0,0 +1,43 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class UserRepositoryCustomImpl extends SpecificationQuerySupport<User> implements UserRepositoryCustom {
+    // Selecting the columns keeps the eager password reset token of User from being loaded per row
+    private static final SelectionFactory<User, UserReadOnlyDTO> readOnlySelection = (root, builder) ->
+            builder.construct(UserReadOnlyDTO.class,
+                    root.get("id"), root.get("uuid"), root.get("username"), root.get("isActive"), root.get("role"));
+
+    public UserRepositoryCustomImpl() {
+        super(User.class);
+    }
+
+    @Override
+    public Page<UserReadOnlyDTO> findReadOnlyPage(Specification<User> spec, Pageable pageable) {
+        return findPage(spec, pageable, UserReadOnlyDTO.class, readOnlySelection);
+    }
+
+    @Override
+    public Slice<UserReadOnlyDTO> findReadOnlySlice(Specification<User> spec, Pageable pageable) {
+        return findSlice(spec, pageable, UserReadOnlyDTO.class, readOnlySelection);
+    }
+
+    @Override
+    public List<UserReadOnlyDTO> findReadOnlyAll(Specification<User> spec, Sort sort) {
+        return findAll(spec, sort, UserReadOnlyDTO.class, readOnlySelection);
+    }
+
+    @Override
+    public Stream<UserReadOnlyDTO> streamReadOnly(Specification<User> spec, Sort sort) {
+        return stream(spec, sort, UserReadOnlyDTO.class, readOnlySelection);
+    }
+}
@@ -68,7 +68,7 @@ public class AuthRestController {
             UserReadOnlyDTO userReadOnlyDTO = userService.registerUser(dto);
             return new ResponseEntity<>(userReadOnlyDTO, HttpStatus.CREATED);
         } catch ( AppObjectAlreadyExistsException e) {
-            LOGGER.error("User registration failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -98,7 +98,7 @@ public class AuthRestController {
             @RequestBody AuthenticationRequestDTO authenticationRequestDTO
             ) throws AppObjectNotAuthorizedException {
         AuthenticationResponseDTO authenticationResponseDTO = authenticationService.authenticate(authenticationRequestDTO);
-        LOGGER.info("User authenticated: {}", authenticationResponseDTO);
+        LOGGER.info("User authenticated: {}", authenticationRequestDTO.username());
         return new ResponseEntity<>(authenticationResponseDTO, HttpStatus.OK);
     }
 
@@ -117,7 +117,6 @@ public class AuthRestController {
 
         try {
             PasswordResetToken token = passwordResetTokenService.generateTokenForUser(dto.username());
-            LOGGER.info("Password reset token: {}", token);
             emailService.sendPasswordResetEmail(dto.username(), token.getToken());
             LOGGER.info("Password reset email sent to user: {}", dto.username());
 
@@ -164,7 +163,7 @@ public class AuthRestController {
                     ));
 
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Invalid or expired token: {}", dto.token());
+            LOGGER.warn("Invalid or expired password reset token");
             throw new AppObjectNotAuthorizedException(
                     "Token",
                     "The password reset link is invalid or has expired. Please request a new one."
@@ -1,12 +1,17 @@
 package gr.aueb.cf.springtaskrest.rest;
 
+import gr.aueb.cf.springtaskrest.authentication.AuthenticatedUser;
+import gr.aueb.cf.springtaskrest.core.etag.Versioned;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotAuthorizedException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectPreconditionFailedException;
 import gr.aueb.cf.springtaskrest.core.exceptions.ValidationException;
 import gr.aueb.cf.springtaskrest.dto.*;
-import gr.aueb.cf.springtaskrest.model.User;
+import gr.aueb.cf.springtaskrest.service.PurgeService;
 import gr.aueb.cf.springtaskrest.service.TaskService;
+import gr.aueb.cf.springtaskrest.service.TaskStatsService;
 import gr.aueb.cf.springtaskrest.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,14 +22,17 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.security.Principal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/users/me")
@@ -34,6 +42,8 @@ public class CurrentUserRestController {
     private static final Logger LOGGER = LoggerFactory.getLogger(CurrentUserRestController.class);
     private final UserService userService;
     private final TaskService taskService;
+    private final PurgeService purgeService;
+    private final TaskStatsService taskStatsService;
 
 
     @Operation(
@@ -52,13 +62,13 @@ public class CurrentUserRestController {
     @Tag(name = "Users")
     @GetMapping
     public ResponseEntity<UserReadOnlyDTO> getMe(
-            @AuthenticationPrincipal User user
+            @AuthenticationPrincipal AuthenticatedUser user
     ) throws AppObjectNotFoundException {
         try {
-            UserReadOnlyDTO readOnlyDTO = userService.findByUuid(user.getUuid());
+            UserReadOnlyDTO readOnlyDTO = userService.findByUuid(user.uuid());
             return new ResponseEntity<>(readOnlyDTO, HttpStatus.OK);
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Getting user failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -83,16 +93,16 @@ public class CurrentUserRestController {
     public ResponseEntity<UserReadOnlyDTO> updateMe(
             @Valid @RequestBody UserUpdateDTO dto,
             BindingResult bindingResult,
-            @AuthenticationPrincipal User user
+            @AuthenticationPrincipal AuthenticatedUser user
     ) throws ValidationException, AppObjectNotFoundException, AppObjectAlreadyExistsException {
         if (bindingResult.hasErrors()) {
             throw new ValidationException(bindingResult);
         }
         try {
-            UserReadOnlyDTO updatedUser = userService.updateUser(user.getUuid(), dto);
+            UserReadOnlyDTO updatedUser = userService.updateUser(user.uuid(), dto);
             return new ResponseEntity<>(updatedUser, HttpStatus.OK);
         } catch (AppObjectNotFoundException | AppObjectAlreadyExistsException e) {
-            LOGGER.error("Updating user failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -108,13 +118,13 @@ public class CurrentUserRestController {
     @Tag(name = "Users")
     @DeleteMapping
     public ResponseEntity<Void> deleteMe(
-            @AuthenticationPrincipal User user
+            @AuthenticationPrincipal AuthenticatedUser user
     ) throws AppObjectNotFoundException {
         try {
-            userService.reverseUserStatusActivity(user.getUuid());
+            userService.reverseUserStatusActivity(user.uuid());
             return ResponseEntity.noContent().build();
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Deleting user failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -142,7 +152,7 @@ public class CurrentUserRestController {
             userService.changeUserPassword(principal.getName(), dto);
             return ResponseEntity.noContent().build();
         } catch (AppObjectNotFoundException | AppObjectNotAuthorizedException e) {
-            LOGGER.error("Changing password failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -160,26 +170,31 @@ public class CurrentUserRestController {
     @Tag(name = "Tasks")
     @GetMapping("/tasks")
     public ResponseEntity<Paginated<TaskReadOnlyDTO>> getCurrentUserTasks(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
-    ) {
-        TaskFiltersDTO filters = new TaskFiltersDTO(page, size, user.getUuid());
-        LOGGER.error("Getting current user tasks. {}", filters);
-        return new ResponseEntity<>(taskService.getFilteredPaginatedTasks(filters), HttpStatus.OK);
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest
+    ) throws AppObjectInvalidArgumentException {
+        TaskFiltersDTO filters = new TaskFiltersDTO(page, size, user.uuid());
+        LOGGER.debug("Getting current user tasks. {}", filters);
+        Versioned<Paginated<TaskReadOnlyDTO>> tasks = taskService.getVersionedFilteredPaginatedTasks(filters);
+        if (webRequest.checkNotModified(tasks.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(tasks.eTag()).body(tasks.body());
     }
 
     @Tag(name = "Tasks")
     @PostMapping("/tasks/filtered")
     public ResponseEntity<Paginated<TaskReadOnlyDTO>> getCurrentUserTasksFiltered(
-            @AuthenticationPrincipal User user,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @Nullable @RequestBody TaskFiltersDTO filters
-    ) {
+    ) throws AppObjectInvalidArgumentException {
         TaskFiltersDTO filteredTasks;
         if (filters == null) {
-            filteredTasks = new TaskFiltersDTO(user.getUuid());
+            filteredTasks = new TaskFiltersDTO(user.uuid());
         } else {
-            filteredTasks = new TaskFiltersDTO(filters, user.getUuid());
+            filteredTasks = new TaskFiltersDTO(filters, user.uuid());
         }
         return new ResponseEntity<>(taskService.getFilteredPaginatedTasks(filteredTasks), HttpStatus.OK);
     }
@@ -206,43 +221,130 @@ public class CurrentUserRestController {
     public ResponseEntity<TaskReadOnlyDTO> createTask(
             @Valid @RequestBody TaskInsertDTO taskInsertDTO,
             BindingResult bindingResult,
-            @AuthenticationPrincipal User user
-            ) throws ValidationException, AppObjectNotFoundException, AppObjectAlreadyExistsException {
+            @AuthenticationPrincipal AuthenticatedUser user
+            ) throws ValidationException, AppObjectAlreadyExistsException {
         if (bindingResult.hasErrors()) {
             throw new ValidationException(bindingResult);
         }
         try {
-            TaskReadOnlyDTO readOnlyDTO = taskService.createTask(user.getUuid(), taskInsertDTO);
-            LOGGER.info("Created new task: {}", readOnlyDTO);
+            TaskReadOnlyDTO readOnlyDTO = taskService.createTaskForUser(user.toReadOnlyDTO(), taskInsertDTO);
+            LOGGER.info("Created new task: {}", readOnlyDTO.uuid());
             return new ResponseEntity<>(readOnlyDTO, HttpStatus.CREATED);
-        } catch (AppObjectNotFoundException | AppObjectAlreadyExistsException e) {
-            LOGGER.error(e.getMessage(), e);
+        } catch (AppObjectAlreadyExistsException e) {
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
 
+    @Operation(
+            summary = "Create tasks for current user in bulk",
+            description = "Creates up to 5000 tasks for the current authenticated user in one request. Each item is validated " +
+                    "on its own and reported as CREATED, INVALID or DUPLICATE in the order it was sent.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Bulk creation processed",
+                            content = @Content(schema = @Schema(implementation = TaskBulkResultDTO.class))
+                    )
+            }
+    )
+    @Tag(name = "Tasks")
+    @PostMapping("/tasks/bulk")
+    public ResponseEntity<TaskBulkResultDTO> createTasks(
+            @RequestBody List<TaskInsertDTO> taskInsertDTOs,
+            @AuthenticationPrincipal AuthenticatedUser user
+    ) throws AppObjectInvalidArgumentException {
+        TaskBulkResultDTO result = taskService.createTasksForUser(user.toReadOnlyDTO(), taskInsertDTOs);
+        LOGGER.info("Bulk created {} tasks for current user, {} rejected", result.created(), result.rejected());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Change the status of current user's filtered tasks",
+            description = "Sets the given status on every task of the current authenticated user matching the filters. " +
+                    "Returns the number of tasks changed.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Task statuses updated"),
+            }
+    )
+    @Tag(name = "Tasks")
+    @PatchMapping("/tasks/status")
+    public ResponseEntity<TaskStatusUpdateResultDTO> updateTasksStatus(
+            @Valid @RequestBody TaskStatusUpdateDTO statusUpdateDTO,
+            BindingResult bindingResult,
+            @AuthenticationPrincipal AuthenticatedUser user
+    ) throws ValidationException, AppObjectInvalidArgumentException {
+        if (bindingResult.hasErrors()) {
+            throw new ValidationException(bindingResult);
+        }
+        TaskStatusUpdateResultDTO result = taskService.updateTasksStatus(new TaskStatusUpdateDTO(statusUpdateDTO, user.uuid()));
+        LOGGER.info("Updated status of {} current user tasks to {}", result.updated(), result.status());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Delete all tasks of current user",
-            description = "Deletes all tasks associated with the current authenticated user.",
+            description = "Deletes all tasks associated with the current authenticated user. " +
+                    "With background=true the deletion runs asynchronously and a purge job is returned, " +
+                    "whose progress can be polled at /tasks/purges/{jobId}.",
             responses = {
                     @ApiResponse(responseCode = "204", description = "All user tasks deleted"),
+                    @ApiResponse(responseCode = "202", description = "Background deletion started"),
             }
     )
     @Tag(name = "Tasks")
     @DeleteMapping("/tasks")
-    public ResponseEntity<Void> deleteAllCurrentUserTasks(
-            @AuthenticationPrincipal User user
+    public ResponseEntity<PurgeJobReadOnlyDTO> deleteAllCurrentUserTasks(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "false") boolean background
     ) throws AppObjectNotFoundException {
+        if (background) {
+            PurgeJobReadOnlyDTO job = purgeService.startUserTasksPurge(user.id(), user.uuid());
+            LOGGER.info("Started background deletion of current user tasks: {}", job.id());
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+        }
         try {
-            taskService.deleteAllUserTasks(user.getUuid());
-            LOGGER.info("Deleted all current user tasks: {}", user.getUuid());
+            taskService.deleteAllUserTasks(user.uuid());
+            LOGGER.info("Deleted all current user tasks: {}", user.uuid());
             return ResponseEntity.noContent().build();
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error(e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
 
+    @Operation(
+            summary = "Get a background task deletion of current user",
+            description = "Returns the progress of a background deletion started by the current authenticated user.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Purge job found"),
+                    @ApiResponse(responseCode = "404", description = "Purge job not found or expired"),
+            }
+    )
+    @Tag(name = "Tasks")
+    @GetMapping("/tasks/purges/{jobId}")
+    public ResponseEntity<PurgeJobReadOnlyDTO> getCurrentUserPurgeJob(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String jobId
+    ) throws AppObjectNotFoundException {
+        return new ResponseEntity<>(purgeService.getUserJob(jobId, user.uuid()), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get task statistics of current user",
+            description = "Returns the number of tasks of the current authenticated user per status.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Task statistics retrieved"),
+            }
+    )
+    @Tag(name = "Tasks")
+    @GetMapping("/tasks/stats")
+    public ResponseEntity<TaskStatsReadOnlyDTO> getCurrentUserTaskStats(
+            @AuthenticationPrincipal AuthenticatedUser user
+    ) {
+        return new ResponseEntity<>(taskStatsService.getUserStats(user.id()), HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Get a specific task of current user by UUID",
             description = "Retrieves a specific task belonging to the current authenticated user by its UUID.",
@@ -257,22 +359,28 @@ public class CurrentUserRestController {
     @Tag(name = "Tasks")
     @GetMapping("/tasks/{taskUuid}")
     public ResponseEntity<TaskReadOnlyDTO> getCurrentUserTaskByUuid(
-            @AuthenticationPrincipal User user,
-            @PathVariable String taskUuid
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String taskUuid,
+            WebRequest webRequest
     ) throws AppObjectNotFoundException {
         try {
-            TaskReadOnlyDTO readOnlyDTO = taskService.findTaskByUserUuidAndTaskUuid(user.getUuid(), taskUuid);
-            LOGGER.info("Retrieved task: {}", readOnlyDTO);
-            return new ResponseEntity<>(readOnlyDTO, HttpStatus.OK);
+            String eTag = taskService.getTaskETagForUserId(user.id(), taskUuid);
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
+            TaskReadOnlyDTO readOnlyDTO = taskService.findTaskByUserIdAndTaskUuid(user.id(), taskUuid);
+            LOGGER.debug("Retrieved task: {}", readOnlyDTO.uuid());
+            return ResponseEntity.ok().eTag(eTag).body(readOnlyDTO);
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Could not find task with uuid: {}", taskUuid, e);
+            LOGGER.warn("Could not find task with uuid: {}", taskUuid);
             throw e;
         }
     }
 
     @Operation(
             summary = "Update a task of current user by UUID",
-            description = "Updates a specific task of the current authenticated user.",
+            description = "Updates a specific task of the current authenticated user. " +
+                    "When If-Match is sent, the update only applies if it matches the current ETag of the task.",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     required = true,
                     content = @Content(schema = @Schema(implementation = TaskUpdateDTO.class))
@@ -282,7 +390,8 @@ public class CurrentUserRestController {
                             responseCode = "200",
                             description = "Task updated",
                             content = @Content(schema = @Schema(implementation = TaskReadOnlyDTO.class))
-                    )
+                    ),
+                    @ApiResponse(responseCode = "412", description = "Task changed since the given ETag")
             }
     )
     @Tag(name = "Tasks")
@@ -291,17 +400,18 @@ public class CurrentUserRestController {
             @PathVariable("taskUuid") String taskUuid,
             @Valid @RequestBody TaskUpdateDTO updateDTO,
             BindingResult bindingResult,
-            @AuthenticationPrincipal User user
-    ) throws ValidationException, AppObjectNotFoundException, AppObjectAlreadyExistsException {
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws ValidationException, AppObjectNotFoundException, AppObjectAlreadyExistsException, AppObjectPreconditionFailedException {
         if (bindingResult.hasErrors()) {
             throw new ValidationException(bindingResult);
         }
         try {
-            TaskReadOnlyDTO readOnlyDTO = taskService.updateTask(user.getUuid(), taskUuid, updateDTO);
-            LOGGER.info("Updated task: {}", readOnlyDTO);
-            return new ResponseEntity<>(readOnlyDTO, HttpStatus.OK);
-        } catch (AppObjectNotFoundException | AppObjectAlreadyExistsException e) {
-            LOGGER.error(e.getMessage(), e);
+            Versioned<TaskReadOnlyDTO> updated = taskService.updateTaskForUserId(user.id(), taskUuid, updateDTO, ifMatch);
+            LOGGER.info("Updated task: {}", updated.body().uuid());
+            return ResponseEntity.ok().eTag(updated.eTag()).body(updated.body());
+        } catch (AppObjectNotFoundException | AppObjectAlreadyExistsException | AppObjectPreconditionFailedException e) {
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -317,14 +427,14 @@ public class CurrentUserRestController {
     @DeleteMapping("/tasks/{taskUuid}")
     public ResponseEntity<Void> deleteUserTaskByUuid(
             @PathVariable("taskUuid") String taskUuid,
-            @AuthenticationPrincipal User user
+            @AuthenticationPrincipal AuthenticatedUser user
     ) throws AppObjectNotFoundException {
         try {
-            taskService.deleteTaskByUuidAndUserUuid(user.getUuid(), taskUuid);
+            taskService.deleteTaskByUserIdAndTaskUuid(user.id(), taskUuid);
             LOGGER.info("Deleted task: {}", taskUuid);
             return ResponseEntity.noContent().build();
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Could not find task with uuid: {}", taskUuid, e);
+            LOGGER.warn("Could not find task with uuid: {}", taskUuid);
             throw e;
         }
     }
@@ -0,0 +1,33 @@
+package gr.aueb.cf.springtaskrest.rest;
+
+import gr.aueb.cf.springtaskrest.dto.VirtualThreadDiagnosticsReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.service.IDiagnosticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/diagnostics")
+@RequiredArgsConstructor
+@Tag(name = "Admin")
+public class DiagnosticsRestController {
+    private final IDiagnosticsService diagnosticsService;
+
+    @Operation(
+            summary = "Get virtual thread diagnostics",
+            description = "Returns whether requests run on virtual threads, carrier pinning observed since startup "
+                    + "and the connection permits of each pool. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Diagnostics retrieved"),
+            }
+    )
+    @GetMapping("/virtual-threads")
+    public ResponseEntity<VirtualThreadDiagnosticsReadOnlyDTO> getVirtualThreadDiagnostics() {
+        return ResponseEntity.ok(diagnosticsService.getVirtualThreadDiagnostics());
+    }
+}
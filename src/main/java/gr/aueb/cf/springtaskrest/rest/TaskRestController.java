@@ -1,23 +1,36 @@
 package gr.aueb.cf.springtaskrest.rest;
 
+import gr.aueb.cf.springtaskrest.core.enums.ExportFormat;
+import gr.aueb.cf.springtaskrest.core.etag.Versioned;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectPreconditionFailedException;
 import gr.aueb.cf.springtaskrest.core.exceptions.ValidationException;
 import gr.aueb.cf.springtaskrest.dto.*;
+import gr.aueb.cf.springtaskrest.service.PurgeService;
 import gr.aueb.cf.springtaskrest.service.TaskService;
+import gr.aueb.cf.springtaskrest.service.TaskStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -29,6 +42,8 @@ import org.springframework.web.bind.annotation.*;
 public class TaskRestController {
     private static final Logger LOGGER = LoggerFactory.getLogger(TaskRestController.class);
     private final TaskService taskService;
+    private final PurgeService purgeService;
+    private final TaskStatsService taskStatsService;
 
     @Operation(
             summary = "Get all tasks (paginated)",
@@ -41,29 +56,158 @@ public class TaskRestController {
     @GetMapping("/tasks")
     public ResponseEntity<Paginated<TaskReadOnlyDTO>> getAllTasksPaginated(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
-    ) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest
+    ) throws AppObjectInvalidArgumentException {
         TaskFiltersDTO filters = new TaskFiltersDTO(page, size);
-        var tasks = taskService.getFilteredPaginatedTasks(filters);
-        return new ResponseEntity<>(tasks, HttpStatus.OK);
+        Versioned<Paginated<TaskReadOnlyDTO>> tasks = taskService.getVersionedFilteredPaginatedTasks(filters);
+        if (webRequest.checkNotModified(tasks.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(tasks.eTag()).body(tasks.body());
     }
 
     @Operation(
             summary = "Delete all tasks",
-            description = "Deletes all tasks in the system. Only accessible by admin.",
+            description = "Deletes all tasks in the system. With background=true the deletion runs asynchronously " +
+                    "and a purge job is returned, whose progress can be polled at /tasks/purges/{jobId}. Only accessible by admin.",
             responses = {
                     @ApiResponse(responseCode = "204", description = "All tasks deleted successfully"),
+                    @ApiResponse(responseCode = "202", description = "Background deletion started"),
             }
     )
     @DeleteMapping("/tasks")
-    public ResponseEntity<Void> deleteAllTasks() {
+    public ResponseEntity<PurgeJobReadOnlyDTO> deleteAllTasks(
+            @RequestParam(defaultValue = "false") boolean background
+    ) {
+        if (background) {
+            PurgeJobReadOnlyDTO job = purgeService.startAllTasksPurge();
+            LOGGER.info("Started background deletion of all tasks: {}", job.id());
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+        }
         taskService.deleteAllTasks();
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(
+            summary = "Get a background deletion",
+            description = "Returns the progress of a background deletion of tasks or users. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Purge job found"),
+                    @ApiResponse(responseCode = "404", description = "Purge job not found or expired"),
+            }
+    )
+    @GetMapping("/tasks/purges/{jobId}")
+    public ResponseEntity<PurgeJobReadOnlyDTO> getPurgeJob(@PathVariable String jobId) throws AppObjectNotFoundException {
+        return new ResponseEntity<>(purgeService.getJob(jobId), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Change the status of filtered tasks",
+            description = "Sets the given status on every task matching the filters, e.g. cancelling all ONGOING tasks of a user. " +
+                    "Paging and sorting fields of the filters are ignored. Returns the number of tasks changed. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Task statuses updated"),
+            }
+    )
+    @PatchMapping("/tasks/status")
+    public ResponseEntity<TaskStatusUpdateResultDTO> updateTasksStatus(
+            @Valid @RequestBody TaskStatusUpdateDTO statusUpdateDTO,
+            BindingResult bindingResult
+    ) throws ValidationException, AppObjectInvalidArgumentException {
+        if (bindingResult.hasErrors()) {
+            throw new ValidationException(bindingResult);
+        }
+        TaskStatusUpdateResultDTO result = taskService.updateTasksStatus(statusUpdateDTO);
+        LOGGER.info("Updated status of {} tasks to {}", result.updated(), result.status());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get task statistics",
+            description = "Returns the number of tasks per status across all users. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Task statistics retrieved"),
+            }
+    )
+    @GetMapping("/tasks/stats")
+    public ResponseEntity<TaskStatsReadOnlyDTO> getTaskStats() {
+        return new ResponseEntity<>(taskStatsService.getGlobalStats(), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Rebuild task statistics",
+            description = "Recounts the task statistics from the tasks table, e.g. after tasks were changed outside the application. " +
+                    "Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Task statistics rebuilt"),
+            }
+    )
+    @PostMapping("/tasks/stats/rebuild")
+    public ResponseEntity<Void> rebuildTaskStats() {
+        taskStatsService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(
+            summary = "Get task statistics of a user",
+            description = "Returns the number of tasks of the specified user per status. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Task statistics retrieved"),
+                    @ApiResponse(responseCode = "404", description = "User not found"),
+            }
+    )
+    @GetMapping("/users/{userUuid}/tasks/stats")
+    public ResponseEntity<TaskStatsReadOnlyDTO> getUserTaskStats(@PathVariable String userUuid) throws AppObjectNotFoundException {
+        return new ResponseEntity<>(taskStatsService.getUserStats(userUuid), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get filtered task page cache statistics",
+            description = "Returns size, hit and miss counts of the filtered task page cache. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Cache statistics retrieved"),
+            }
+    )
+    @GetMapping("/tasks/cache/stats")
+    public ResponseEntity<CacheStatsReadOnlyDTO> getTaskPageCacheStats() {
+        return new ResponseEntity<>(taskService.getTaskPageCacheStats(), HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Export filtered tasks",
+            description = "Streams every task matching the filters in the request body as NDJSON (default) or CSV. " +
+                    "Rows are written as they are read, so the export is not limited by the page size. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Tasks exported"),
+            }
+    )
+    @PostMapping("/tasks/export")
+    public void exportFilteredTasks(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @Nullable @RequestBody TaskFiltersDTO filters,
+            HttpServletResponse response
+    ) throws IOException, AppObjectInvalidArgumentException {
+        if (filters == null) filters = new TaskFiltersDTO();
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks." + format.getExtension() + "\"");
+        try {
+            taskService.exportFilteredTasks(filters, format, response.getOutputStream());
+        } catch (AppObjectInvalidArgumentException e) {
+            // Rejected before any row was written, drop the export headers so the error goes out as JSON
+            response.reset();
+            throw e;
+        }
+    }
+
     @Operation(
             summary = "Get filtered tasks (paginated)",
-            description = "Returns a paginated list of tasks filtered by criteria in the request body. Only accessible by admin.",
+            description = "Returns a paginated list of tasks filtered by criteria in the request body. " +
+                    "With paginationMode CURSOR, pages are fetched by keyset without a total count and " +
+                    "the returned nextCursor must be sent back as cursor to get the next page. " +
+                    "The search field matches words (or word prefixes) in title and description, best matches first " +
+                    "unless sortBy is given. Only accessible by admin.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Filtered tasks retrieved"),
             }
@@ -71,7 +215,7 @@ public class TaskRestController {
     @PostMapping("/tasks/filtered")
     public ResponseEntity<Paginated<TaskReadOnlyDTO>> getFilteredTasksPaginated(
             @Nullable @RequestBody TaskFiltersDTO filters
-            ) {
+            ) throws AppObjectInvalidArgumentException {
         if (filters == null) filters = new TaskFiltersDTO();
         var tasks = taskService.getFilteredPaginatedTasks(filters);
         return new ResponseEntity<>(tasks, HttpStatus.OK);
@@ -92,7 +236,7 @@ public class TaskRestController {
             TaskReadOnlyDTO readOnlyDTO = taskService.findTaskByUuid(uuid);
             return new ResponseEntity<>(readOnlyDTO, HttpStatus.OK);
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Could not find task with uuid: {}", uuid, e);
+            LOGGER.warn("Could not find task with uuid: {}", uuid);
             throw e;
         }
     }
@@ -113,7 +257,7 @@ public class TaskRestController {
             taskService.deleteTaskByUuid(uuid);
             return ResponseEntity.noContent().build();
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Could not find task with uuid: {}", uuid, e);
+            LOGGER.warn("Could not find task with uuid: {}", uuid);
             throw e;
         }
     }
@@ -130,10 +274,15 @@ public class TaskRestController {
     public ResponseEntity<Paginated<TaskReadOnlyDTO>> getAllUserTasksPaginated(
             @PathVariable("userUuid") String userUuid,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
-    ) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest webRequest
+    ) throws AppObjectInvalidArgumentException {
         TaskFiltersDTO filters = new TaskFiltersDTO(page, size, userUuid);
-        return new ResponseEntity<>(taskService.getFilteredPaginatedTasks(filters), HttpStatus.OK);
+        Versioned<Paginated<TaskReadOnlyDTO>> tasks = taskService.getVersionedFilteredPaginatedTasks(filters);
+        if (webRequest.checkNotModified(tasks.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(tasks.eTag()).body(tasks.body());
     }
 
 
@@ -154,14 +303,32 @@ public class TaskRestController {
         }
         try {
             TaskReadOnlyDTO readOnlyDTO = taskService.createTask(userUuid, taskInsertDTO);
-            LOGGER.info("Created new task: {}", readOnlyDTO);
+            LOGGER.info("Created new task: {}", readOnlyDTO.uuid());
             return new ResponseEntity<>(readOnlyDTO, HttpStatus.CREATED);
         } catch (AppObjectNotFoundException | AppObjectAlreadyExistsException e) {
-            LOGGER.error(e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
 
+    @Operation(
+            summary = "Create tasks for a user in bulk",
+            description = "Creates up to 5000 tasks for the specified user in one request. Each item is validated " +
+                    "on its own and reported as CREATED, INVALID or DUPLICATE in the order it was sent. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Bulk creation processed"),
+            }
+    )
+    @PostMapping("/users/{userUuid}/tasks/bulk")
+    public ResponseEntity<TaskBulkResultDTO> createTasks(
+            @PathVariable String userUuid,
+            @RequestBody List<TaskInsertDTO> taskInsertDTOs
+    ) throws AppObjectNotFoundException, AppObjectInvalidArgumentException {
+        TaskBulkResultDTO result = taskService.createTasks(userUuid, taskInsertDTOs);
+        LOGGER.info("Bulk created {} tasks for user {}, {} rejected", result.created(), userUuid, result.rejected());
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Get user's task by UUID",
             description = "Retrieve a specific task assigned to a user by its UUID. Only accessible by admin.",
@@ -172,23 +339,30 @@ public class TaskRestController {
     @GetMapping("/users/{userUuid}/tasks/{taskUuid}")
     public ResponseEntity<TaskReadOnlyDTO> getUserTaskByUuid(
             @PathVariable("userUuid") String userUuid,
-            @PathVariable("taskUuid") String taskUuid
+            @PathVariable("taskUuid") String taskUuid,
+            WebRequest webRequest
     ) throws AppObjectNotFoundException {
         try {
+            String eTag = taskService.getTaskETag(userUuid, taskUuid);
+            if (webRequest.checkNotModified(eTag)) {
+                return null;
+            }
             TaskReadOnlyDTO readOnlyDTO = taskService.findTaskByUserUuidAndTaskUuid(userUuid, taskUuid);
-            LOGGER.info("Retrieved task: {}", readOnlyDTO);
-            return new ResponseEntity<>(readOnlyDTO, HttpStatus.OK);
+            LOGGER.debug("Retrieved task: {}", readOnlyDTO.uuid());
+            return ResponseEntity.ok().eTag(eTag).body(readOnlyDTO);
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Could not find task with uuid: {}", taskUuid, e);
+            LOGGER.warn("Could not find task with uuid: {}", taskUuid);
             throw e;
         }
     }
 
     @Operation(
             summary = "Update user's task by UUID",
-            description = "Updates a specific task assigned to a user. Only accessible by admin.",
+            description = "Updates a specific task assigned to a user. Only accessible by admin. " +
+                    "When If-Match is sent, the update only applies if it matches the current ETag of the task.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Task updated"),
+                    @ApiResponse(responseCode = "412", description = "Task changed since the given ETag"),
             }
     )
     @PatchMapping("/users/{userUuid}/tasks/{taskUuid}")
@@ -196,17 +370,18 @@ public class TaskRestController {
             @PathVariable("userUuid") String userUuid,
             @PathVariable("taskUuid") String taskUuid,
             @Valid @RequestBody TaskUpdateDTO updateDTO,
-            BindingResult bindingResult
-    ) throws ValidationException, AppObjectNotFoundException, AppObjectAlreadyExistsException {
+            BindingResult bindingResult,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws ValidationException, AppObjectNotFoundException, AppObjectAlreadyExistsException, AppObjectPreconditionFailedException {
         if (bindingResult.hasErrors()) {
             throw new ValidationException(bindingResult);
         }
         try {
-            TaskReadOnlyDTO readOnlyDTO = taskService.updateTask(userUuid, taskUuid, updateDTO);
-            LOGGER.info("Updated task: {}", readOnlyDTO);
-            return new ResponseEntity<>(readOnlyDTO, HttpStatus.OK);
-        } catch (AppObjectNotFoundException | AppObjectAlreadyExistsException e) {
-            LOGGER.error(e.getMessage(), e);
+            Versioned<TaskReadOnlyDTO> updated = taskService.updateTask(userUuid, taskUuid, updateDTO, ifMatch);
+            LOGGER.info("Updated task: {}", updated.body().uuid());
+            return ResponseEntity.ok().eTag(updated.eTag()).body(updated.body());
+        } catch (AppObjectNotFoundException | AppObjectAlreadyExistsException | AppObjectPreconditionFailedException e) {
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -228,7 +403,7 @@ public class TaskRestController {
             LOGGER.info("Deleted task: {}", taskUuid);
             return ResponseEntity.noContent().build();
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Could not find task with uuid: {}", taskUuid, e);
+            LOGGER.warn("Could not find task with uuid: {}", taskUuid);
             throw e;
         }
     }
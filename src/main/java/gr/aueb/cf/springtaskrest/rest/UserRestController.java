@@ -1,9 +1,12 @@
 package gr.aueb.cf.springtaskrest.rest;
 
+import gr.aueb.cf.springtaskrest.core.enums.ExportFormat;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
 import gr.aueb.cf.springtaskrest.core.exceptions.ValidationException;
 import gr.aueb.cf.springtaskrest.dto.*;
+import gr.aueb.cf.springtaskrest.service.PurgeService;
 import gr.aueb.cf.springtaskrest.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,17 +14,23 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.tags.Tags;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 
 @RestController
 @RequestMapping("/api/v1/users")
@@ -33,6 +42,7 @@ import org.springframework.web.bind.annotation.*;
 public class UserRestController {
     private static final Logger LOGGER = LoggerFactory.getLogger(UserRestController.class);
     private final UserService userService;
+    private final PurgeService purgeService;
 
     @Operation(
             summary = "Get all users (paginated)",
@@ -48,7 +58,7 @@ public class UserRestController {
     public ResponseEntity<Page<UserReadOnlyDTO>> getAllUsersPaginated(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size
-    ) {
+    ) throws AppObjectInvalidArgumentException {
         Page<UserReadOnlyDTO> usersPage = userService.getUsersPaginated(page, size);
         return new ResponseEntity<>(usersPage, HttpStatus.OK);
     }
@@ -83,30 +93,67 @@ public class UserRestController {
             UserReadOnlyDTO readOnlyDTO = userService.saveUser(dto);
             return new ResponseEntity<>(readOnlyDTO, HttpStatus.CREATED);
         } catch (AppObjectAlreadyExistsException e) {
-            LOGGER.error("Inserting user failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
 
     @Operation(
             summary = "Delete all users",
-            description = "Admin deletes all users cascades to a delete to all tasks.",
+            description = "Admin deletes all users cascades to a delete to all tasks. With background=true the deletion " +
+                    "runs asynchronously and a purge job is returned, whose progress can be polled at /api/v1/tasks/purges/{jobId}.",
             responses = {
                     @ApiResponse(
                             responseCode = "204", description = "Users successfully deleted"
+                    ),
+                    @ApiResponse(
+                            responseCode = "202", description = "Background deletion started"
                     )
             }
     )
     @DeleteMapping
-    public ResponseEntity<Void> deleteAllUsers() {
+    public ResponseEntity<PurgeJobReadOnlyDTO> deleteAllUsers(
+            @RequestParam(defaultValue = "false") boolean background
+    ) {
+        if (background) {
+            PurgeJobReadOnlyDTO job = purgeService.startAllUsersPurge();
+            LOGGER.info("Started background deletion of all users: {}", job.id());
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+        }
         userService.deleteAllUsers();
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
 
+    @Operation(
+            summary = "Export filtered users",
+            description = "Streams every user matching the filters in the request body as NDJSON (default) or CSV. " +
+                    "Rows are written as they are read, so the export is not limited by the page size. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Users exported"
+                    )
+            }
+    )
+    @PostMapping("/export")
+    public void exportFilteredUsers(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @Nullable @RequestBody UserFiltersDTO filters,
+            HttpServletResponse response
+    ) throws IOException {
+        if (filters == null) filters = new UserFiltersDTO();
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + format.getExtension() + "\"");
+        userService.exportFilteredUsers(filters, format, response.getOutputStream());
+    }
+
     @Operation(
             summary = "Get filtered users (paginated)",
-            description = "Returns a paginated list of users matching provided filters. Only accessible by admin.",
+            description = "Returns a paginated list of users matching provided filters. " +
+                    "With paginationMode CURSOR, pages are fetched by keyset without a total count and " +
+                    "the returned nextCursor must be sent back as cursor to get the next page. Only accessible by admin.",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     content = @Content(
                             schema = @Schema(implementation = UserFiltersDTO.class)
@@ -122,12 +169,24 @@ public class UserRestController {
     @PostMapping("/filtered")
     public ResponseEntity<Paginated<UserReadOnlyDTO>> getFilteredUsersPaginated(
             @Nullable @RequestBody UserFiltersDTO filters
-            ) {
+            ) throws AppObjectInvalidArgumentException {
         if (filters == null) filters = new UserFiltersDTO();
         return new ResponseEntity<>(userService.getUsersFilteredPaginated(filters), HttpStatus.OK);
     }
 
 
+    @Operation(
+            summary = "Get user cache statistics",
+            description = "Returns size, hit and miss counts of the user lookup caches. Only accessible by admin.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Cache statistics retrieved"),
+            }
+    )
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsReadOnlyDTO>> getUserCacheStats() {
+        return new ResponseEntity<>(userService.getUserCacheStats(), HttpStatus.OK);
+    }
+
     @Operation(
             summary = "Get user by UUID",
             description = "Retrieves a user by their unique UUID. Only accessible by admin.",
@@ -147,7 +206,7 @@ public class UserRestController {
             UserReadOnlyDTO readOnlyDTO = userService.findByUuid(uuid);
             return new ResponseEntity<>(readOnlyDTO, HttpStatus.OK);
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Getting user failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -181,7 +240,7 @@ public class UserRestController {
             UserReadOnlyDTO readOnlyDTO = userService.updateUser(uuid, dto);
             return new ResponseEntity<>(readOnlyDTO, HttpStatus.OK);
         } catch (AppObjectNotFoundException | AppObjectAlreadyExistsException e) {
-            LOGGER.error("Updating user failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -205,7 +264,7 @@ public class UserRestController {
             userService.deleteUser(uuid);
             return ResponseEntity.noContent().build();
         } catch (AppObjectNotFoundException e) {
-            LOGGER.error("Deleting user failed. {}", e.getMessage(), e);
+            LOGGER.warn(e.getMessage());
             throw e;
         }
     }
@@ -1,24 +1,78 @@
 package gr.aueb.cf.springtaskrest.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.security.core.userdetails.UserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.function.Function;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
     //    Strong security 384-bits = 48 bytes = 64 Base64URL characters
-    private String secretKey = System.getenv("JWT_SECRET_KEY");
+    private final String secretKey;
     private long jwtExpiration = 10800000;  // 3 hours in milliseconds
+    private static final long MAX_VERIFIED_TOKENS = 10_000;
+
+    // Built lazily so that a missing secret fails on first use, as before, instead of at startup
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+
+    // Keyed by the SHA-256 digest of the token, so raw tokens are never kept in memory.
+    // Each entry lives exactly as long as the token it was verified from.
+    private final Cache<String, VerifiedClaims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(MAX_VERIFIED_TOKENS)
+            .expireAfter(new Expiry<String, VerifiedClaims>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedClaims claims, long currentTime) {
+                    return Math.max(0, Duration.between(Instant.now(), claims.expiration()).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, VerifiedClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+    // Pre-registered so the per-request path only reads the clock
+    private final Timer cachedVerification;
+    private final Timer parsedVerification;
+    private final Timer failedVerification;
+
+    // Resolved like any other property, so tests and benchmarks can supply a key without the environment variable
+    public JwtService(MeterRegistry meterRegistry, @Value("${JWT_SECRET_KEY:#{null}}") String secretKey) {
+        this.secretKey = secretKey;
+        this.cachedVerification = verificationTimer(meterRegistry, "cached");
+        this.parsedVerification = verificationTimer(meterRegistry, "parsed");
+        this.failedVerification = verificationTimer(meterRegistry, "failed");
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verifiedTokens");
+    }
 
     public String generateToken(String username, String role) {
         var claims = new HashMap<String, Object>();
@@ -34,50 +88,82 @@ public class JwtService {
                 .compact();
     }
 
-    public Boolean isTokenValid(String token, UserDetails userDetails, Instant lastPasswordChange) {
-        final String subject = extractSubject(token);
-        final Date issuedAt = extractIssuedAt(token);
-        return subject.equals(userDetails.getUsername()) && !isTokenExpired(token) && issuedAt.toInstant().isAfter(lastPasswordChange);
+    /**
+     * Verifies the signature and expiration of the token and returns its claims.
+     * A token is parsed at most once for as long as it stays valid; subsequent calls
+     * are served from the verified-claims cache.
+     *
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws io.jsonwebtoken.JwtException        if the token is malformed or its signature is invalid
+     */
+    public VerifiedClaims verifyToken(String token) {
+        long start = System.nanoTime();
+        String digest = digest(token);
+        VerifiedClaims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && !cached.isExpired()) {
+            cachedVerification.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        try {
+            VerifiedClaims claims = parseClaims(token);
+            verifiedTokens.put(digest, claims);
+            parsedVerification.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
+        } catch (RuntimeException e) {
+            failedVerification.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
     }
 
-    public String getStringClaim(String token, String claim) {
-        return extractAllClaims(token).get(claim, String.class);
+    public boolean isTokenValid(VerifiedClaims claims, String username, Instant lastPasswordChange) {
+        return claims.subject().equals(username) && !claims.isExpired() && claims.isIssuedAfter(lastPasswordChange);
     }
 
-    public String extractSubject(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    public Date extractIssuedAt(String token) {
-        return extractClaim(token, Claims::getIssuedAt);
+    // Package-private for the jmh benchmarks, which need to bypass the verified-claims cache
+    VerifiedClaims parseClaims(String token) {
+        Claims claims = getParser()
+                .parseSignedClaims(token)
+                .getPayload();
+        return new VerifiedClaims(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser().verifyWith(getSigningKey()).build();
+            jwtParser = parser;
+        }
+        return parser;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private SecretKey getSigningKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signingKey = key;
+        }
+        return key;
     }
 
-    private Claims extractAllClaims(String token) {
-        SecretKey key = getSigningKey();
-        return Jwts
-                .parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.verification")
+                .description("JWT signature and expiration checks")
+                .tag("result", result)
+                .register(meterRegistry);
     }
 
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -46,10 +46,13 @@ public class SecurityConfiguration {
                                 "/swagger-resources/**",
                                 "/swagger-ui.html"
                         ).permitAll()
+                        // Served on the management port only (management.server.port), scraped without a token
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api/v1/users/me/**").authenticated()
                         .requestMatchers("/api/v1/users/**").hasAnyAuthority("ADMIN")
                         .requestMatchers("/api/v1/tasks/**").hasAnyAuthority("ADMIN")
+                        .requestMatchers("/api/v1/diagnostics/**").hasAnyAuthority("ADMIN")
                         .requestMatchers("/**").authenticated()
                 )
                 .sessionManagement((session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)))
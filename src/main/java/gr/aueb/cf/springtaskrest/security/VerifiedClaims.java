@@ -0,0 +1,22 @@
+package gr.aueb.cf.springtaskrest.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiration have already been verified.
+ * Produced once per token by {@link JwtService#verifyToken(String)}.
+ */
+public record VerifiedClaims(
+        String subject,
+        String role,
+        Instant issuedAt,
+        Instant expiration
+) {
+    public boolean isExpired() {
+        return !expiration.isAfter(Instant.now());
+    }
+
+    public boolean isIssuedAfter(Instant instant) {
+        return issuedAt.isAfter(instant);
+    }
+}
@@ -0,0 +1,43 @@
+package gr.aueb.cf.springtaskrest.service;
+
+import gr.aueb.cf.springtaskrest.core.concurrency.ConnectionLimitingDataSource;
+import gr.aueb.cf.springtaskrest.core.concurrency.VirtualThreadPinningMonitor;
+import gr.aueb.cf.springtaskrest.dto.ConnectionPermitsReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.dto.VirtualThreadDiagnosticsReadOnlyDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class DiagnosticsService implements IDiagnosticsService {
+
+    private final VirtualThreadPinningMonitor pinningMonitor;
+    private final ObjectProvider<DataSource> dataSources;
+
+    @Override
+    public VirtualThreadDiagnosticsReadOnlyDTO getVirtualThreadDiagnostics() {
+        // Pools are only wrapped in virtual thread mode, otherwise the list is empty
+        List<ConnectionPermitsReadOnlyDTO> pools = dataSources.orderedStream()
+                .filter(ConnectionLimitingDataSource.class::isInstance)
+                .map(ConnectionLimitingDataSource.class::cast)
+                .map(dataSource -> new ConnectionPermitsReadOnlyDTO(
+                        dataSource.getName(),
+                        dataSource.getMaxPermits(),
+                        dataSource.getAvailablePermits(),
+                        dataSource.getWaiting()))
+                .toList();
+
+        return new VirtualThreadDiagnosticsReadOnlyDTO(
+                pinningMonitor.isEnabled(),
+                pinningMonitor.getPinnedEvents(),
+                pinningMonitor.getPinnedMillis(),
+                pinningMonitor.getMaxPinnedMillis(),
+                pinningMonitor.getTopSites(),
+                pools
+        );
+    }
+}
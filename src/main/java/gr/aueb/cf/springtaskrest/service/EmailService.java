@@ -1,16 +1,31 @@
 package gr.aueb.cf.springtaskrest.service;
 
 import gr.aueb.cf.springtaskrest.core.exceptions.AppServerException;
+import gr.aueb.cf.springtaskrest.core.jfr.MailEvent;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Service
 @RequiredArgsConstructor
 public class EmailService {
+    private static final int MAIL_THREADS = 4;
 
     private final JavaMailSender mailSender;
+    private final ObservationRegistry observationRegistry;
+
+    // JavaMail's SMTP transport does its socket I/O inside synchronized methods, which pins a virtual thread
+    // to its carrier for the whole send. Virtual threads hand the send to these platform threads and wait unpinned.
+    private final ExecutorService mailExecutor = Executors.newFixedThreadPool(MAIL_THREADS,
+            Thread.ofPlatform().name("mail-", 0).daemon().factory());
 
     public void sendPasswordResetEmail(String to, String token) throws AppServerException {
         SimpleMailMessage message = new SimpleMailMessage();
@@ -20,10 +35,44 @@ public class EmailService {
                 + "http://localhost:4200/auth/reset-password?token="  + token
                 + "\n\nThis token will expire in 30 minutes.");
 
-        try {
-            mailSender.send(message);
+        MailEvent event = new MailEvent();
+        event.begin();
+        // Recorded as the mail.send timer and, when traced, as a span of the request
+        Observation observation = Observation.createNotStarted("mail.send", observationRegistry)
+                .contextualName("smtp send")
+                .lowCardinalityKeyValue("type", "passwordReset")
+                .start();
+        String outcome = "failure";
+        try (Observation.Scope scope = observation.openScope()) {
+            if (Thread.currentThread().isVirtual()) {
+                mailExecutor.submit(() -> mailSender.send(message)).get();
+            } else {
+                mailSender.send(message);
+            }
+            outcome = "success";
+        } catch (ExecutionException e) {
+            observation.error(e.getCause());
+            throw new AppServerException("EmailServiceException", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            observation.error(e);
+            throw new AppServerException("EmailServiceException", e.getMessage());
         } catch (Exception e) {
+            observation.error(e);
             throw new AppServerException("EmailServiceException", e.getMessage());
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.type = "passwordReset";
+                event.outcome = outcome;
+                event.commit();
+            }
+            observation.lowCardinalityKeyValue("outcome", outcome).stop();
         }
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void shutdown() {
+        mailExecutor.shutdown();
+    }
+}
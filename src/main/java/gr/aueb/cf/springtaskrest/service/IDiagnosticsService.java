@@ -0,0 +1,7 @@
+package gr.aueb.cf.springtaskrest.service;
+
+import gr.aueb.cf.springtaskrest.dto.VirtualThreadDiagnosticsReadOnlyDTO;
+
+public interface IDiagnosticsService {
+    VirtualThreadDiagnosticsReadOnlyDTO getVirtualThreadDiagnostics();
+}
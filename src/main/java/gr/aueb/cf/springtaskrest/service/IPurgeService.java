@@ -0,0 +1,15 @@
+package gr.aueb.cf.springtaskrest.service;
+
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.dto.PurgeJobReadOnlyDTO;
+
+public interface IPurgeService {
+    long deleteUserTasks(Long userId, String userUuid);
+    long deleteAllTasks();
+    long deleteAllUsers();
+    PurgeJobReadOnlyDTO startUserTasksPurge(Long userId, String userUuid);
+    PurgeJobReadOnlyDTO startAllTasksPurge();
+    PurgeJobReadOnlyDTO startAllUsersPurge();
+    PurgeJobReadOnlyDTO getJob(String jobId) throws AppObjectNotFoundException;
+    PurgeJobReadOnlyDTO getUserJob(String jobId, String userUuid) throws AppObjectNotFoundException;
+}
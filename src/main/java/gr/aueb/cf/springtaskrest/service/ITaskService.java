@@ -1,21 +1,39 @@
 package gr.aueb.cf.springtaskrest.service;
 
+import gr.aueb.cf.springtaskrest.core.enums.ExportFormat;
+import gr.aueb.cf.springtaskrest.core.etag.Versioned;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectPreconditionFailedException;
 import gr.aueb.cf.springtaskrest.dto.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface ITaskService {
     TaskReadOnlyDTO findTaskByUuid(String uuid) throws AppObjectNotFoundException;
     TaskReadOnlyDTO findTaskByUserUuidAndTaskTitle(String uuid, String taskTitle) throws AppObjectNotFoundException;
     TaskReadOnlyDTO findTaskByUserUuidAndTaskUuid(String uuid, String taskUuid) throws AppObjectNotFoundException;
-    Paginated<TaskReadOnlyDTO> getFilteredPaginatedTasks(TaskFiltersDTO filters);
-    List<TaskReadOnlyDTO> getFilteredTasks(TaskFiltersDTO filters);
+    TaskReadOnlyDTO findTaskByUserIdAndTaskUuid(Long userId, String taskUuid) throws AppObjectNotFoundException;
+    String getTaskETag(String userUuid, String taskUuid) throws AppObjectNotFoundException;
+    String getTaskETagForUserId(Long userId, String taskUuid) throws AppObjectNotFoundException;
+    Paginated<TaskReadOnlyDTO> getFilteredPaginatedTasks(TaskFiltersDTO filters) throws AppObjectInvalidArgumentException;
+    Versioned<Paginated<TaskReadOnlyDTO>> getVersionedFilteredPaginatedTasks(TaskFiltersDTO filters) throws AppObjectInvalidArgumentException;
+    CacheStatsReadOnlyDTO getTaskPageCacheStats();
+    List<TaskReadOnlyDTO> getFilteredTasks(TaskFiltersDTO filters) throws AppObjectInvalidArgumentException;
+    void exportFilteredTasks(TaskFiltersDTO filters, ExportFormat format, OutputStream outputStream) throws IOException, AppObjectInvalidArgumentException;
     void deleteTaskByUuid(String uuid) throws AppObjectNotFoundException;
     void deleteTaskByUuidAndUserUuid(String uuid, String taskUuid) throws AppObjectNotFoundException;
+    void deleteTaskByUserIdAndTaskUuid(Long userId, String taskUuid) throws AppObjectNotFoundException;
     void deleteAllTasks();
     void deleteAllUserTasks(String uuid) throws AppObjectNotFoundException;
     TaskReadOnlyDTO createTask(String userUuid, TaskInsertDTO taskInsertDTO) throws AppObjectAlreadyExistsException, AppObjectNotFoundException;
-    TaskReadOnlyDTO updateTask(String userUuid, String taskUuid, TaskUpdateDTO taskUpdateDTO) throws AppObjectNotFoundException, AppObjectAlreadyExistsException;
+    TaskBulkResultDTO createTasks(String userUuid, List<TaskInsertDTO> taskInsertDTOs) throws AppObjectNotFoundException, AppObjectInvalidArgumentException;
+    TaskStatusUpdateResultDTO updateTasksStatus(TaskStatusUpdateDTO dto) throws AppObjectInvalidArgumentException;
+    TaskBulkResultDTO createTasksForUser(UserReadOnlyDTO owner, List<TaskInsertDTO> taskInsertDTOs) throws AppObjectInvalidArgumentException;
+    TaskReadOnlyDTO createTaskForUser(UserReadOnlyDTO owner, TaskInsertDTO taskInsertDTO) throws AppObjectAlreadyExistsException;
+    Versioned<TaskReadOnlyDTO> updateTask(String userUuid, String taskUuid, TaskUpdateDTO taskUpdateDTO, String ifMatch) throws AppObjectNotFoundException, AppObjectAlreadyExistsException, AppObjectPreconditionFailedException;
+    Versioned<TaskReadOnlyDTO> updateTaskForUserId(Long userId, String taskUuid, TaskUpdateDTO taskUpdateDTO, String ifMatch) throws AppObjectNotFoundException, AppObjectAlreadyExistsException, AppObjectPreconditionFailedException;
 }
@@ -0,0 +1,18 @@
+package gr.aueb.cf.springtaskrest.service;
+
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.dto.TaskStatsReadOnlyDTO;
+
+import java.util.Collection;
+
+public interface ITaskStatsService {
+    TaskStatsReadOnlyDTO getUserStats(Long userId);
+    TaskStatsReadOnlyDTO getUserStats(String userUuid) throws AppObjectNotFoundException;
+    TaskStatsReadOnlyDTO getGlobalStats();
+    void adjust(Long userId, TaskStatus status, long delta);
+    void statusChanged(Long userId, TaskStatus from, TaskStatus to);
+    void clearUser(Long userId);
+    void clearUsers(Collection<Long> userIds);
+    void rebuild();
+}
@@ -1,20 +1,26 @@
 package gr.aueb.cf.springtaskrest.service;
 
+import gr.aueb.cf.springtaskrest.core.enums.ExportFormat;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotAuthorizedException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
 import gr.aueb.cf.springtaskrest.dto.*;
 import gr.aueb.cf.springtaskrest.model.User;
 import org.springframework.data.domain.Page;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 
 public interface IUserService {
     UserReadOnlyDTO findByUsername(String username) throws AppObjectNotFoundException;
     UserReadOnlyDTO findByUuid(String uuid) throws AppObjectNotFoundException;
-    Paginated<UserReadOnlyDTO> getUsersFilteredPaginated(UserFiltersDTO filters);
-    Page<UserReadOnlyDTO> getUsersPaginated(int page, int pageSize);
+    List<CacheStatsReadOnlyDTO> getUserCacheStats();
+    Paginated<UserReadOnlyDTO> getUsersFilteredPaginated(UserFiltersDTO filters) throws AppObjectInvalidArgumentException;
+    Page<UserReadOnlyDTO> getUsersPaginated(int page, int pageSize) throws AppObjectInvalidArgumentException;
     List<UserReadOnlyDTO> getUsersFiltered(UserFiltersDTO filters);
+    void exportFilteredUsers(UserFiltersDTO filters, ExportFormat format, OutputStream outputStream) throws IOException;
     UserReadOnlyDTO saveUser(UserInsertDTO dto) throws AppObjectAlreadyExistsException;
     UserReadOnlyDTO registerUser(UserRegisterDTO dto) throws AppObjectAlreadyExistsException;
     UserReadOnlyDTO updateUser(String uuid, UserUpdateDTO dto) throws AppObjectNotFoundException, AppObjectAlreadyExistsException;
@@ -5,6 +5,7 @@ import gr.aueb.cf.springtaskrest.model.PasswordResetToken;
 import gr.aueb.cf.springtaskrest.model.User;
 import gr.aueb.cf.springtaskrest.repository.PasswordResetTokenRepository;
 import gr.aueb.cf.springtaskrest.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 public class PasswordResetTokenService {
 
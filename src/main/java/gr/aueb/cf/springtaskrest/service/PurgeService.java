@@ -0,0 +1,221 @@
+package gr.aueb.cf.springtaskrest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import gr.aueb.cf.springtaskrest.authentication.PrincipalStateCache;
+import gr.aueb.cf.springtaskrest.core.cache.TaskCountCache;
+import gr.aueb.cf.springtaskrest.core.cache.TaskPageCache;
+import gr.aueb.cf.springtaskrest.core.cache.UserCache;
+import gr.aueb.cf.springtaskrest.core.enums.PurgeStatus;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.core.specifications.TaskSpecification;
+import gr.aueb.cf.springtaskrest.dto.PurgeJobReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.model.Task;
+import gr.aueb.cf.springtaskrest.repository.PasswordResetTokenRepository;
+import gr.aueb.cf.springtaskrest.repository.TaskRepository;
+import gr.aueb.cf.springtaskrest.repository.TaskStatusChange;
+import gr.aueb.cf.springtaskrest.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Set-based deletes of tasks and users. Rows are removed with bounded DELETE statements, each committed in its
+ * own short transaction, so no entity is loaded and no purge holds one giant transaction or lock set.
+ * Purges can also run in the background, their progress is kept for a while to be polled by id.
+ */
+@Service
+public class PurgeService implements IPurgeService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PurgeService.class);
+    private static final int DELETE_CHUNK_SIZE = 5_000;
+    private static final Specification<Task> ALL_TASKS = (root, query, builder) -> builder.conjunction();
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+    private static final long MAX_JOBS = 1_000;
+
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final TaskCountCache taskCountCache;
+    private final TaskPageCache taskPageCache;
+    private final PrincipalStateCache principalStateCache;
+    private final UserCache userCache;
+    private final TaskStatsService taskStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+
+    private final Cache<String, PurgeJob> jobs = Caffeine.newBuilder()
+            .maximumSize(MAX_JOBS)
+            .expireAfterWrite(JOB_RETENTION)
+            .build();
+
+    public PurgeService(TaskRepository taskRepository, UserRepository userRepository,
+                        PasswordResetTokenRepository passwordResetTokenRepository,
+                        TaskCountCache taskCountCache, TaskPageCache taskPageCache, PrincipalStateCache principalStateCache, UserCache userCache,
+                        TaskStatsService taskStatsService,
+                        PlatformTransactionManager transactionManager,
+                        @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor) {
+        this.taskRepository = taskRepository;
+        this.userRepository = userRepository;
+        this.passwordResetTokenRepository = passwordResetTokenRepository;
+        this.taskCountCache = taskCountCache;
+        this.taskPageCache = taskPageCache;
+        this.principalStateCache = principalStateCache;
+        this.userCache = userCache;
+        this.taskStatsService = taskStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public long deleteUserTasks(Long userId, String userUuid) {
+        long deleted = deleteTasksInChunks(TaskSpecification.tasksUserIdIn(List.of(userId)));
+        taskCountCache.evictUser(userUuid);
+        taskPageCache.evictUser(userUuid);
+        return deleted;
+    }
+
+    @Override
+    public long deleteAllTasks() {
+        long deleted = deleteTasksInChunks(ALL_TASKS);
+        taskCountCache.evictAll();
+        taskPageCache.evictAll();
+        return deleted;
+    }
+
+    // Most tasks go in a first pass; each user chunk then removes what was added meanwhile, with the users locked
+    @Override
+    public long deleteAllUsers() {
+        deleteTasksInChunks(ALL_TASKS);
+        long deleted = 0;
+        Integer count;
+        do {
+            count = transactionTemplate.execute(status -> {
+                List<Long> userIds = userRepository.findIdsForDeletion(PageRequest.of(0, DELETE_CHUNK_SIZE));
+                if (userIds.isEmpty()) return 0;
+                Specification<Task> userTasks = TaskSpecification.tasksUserIdIn(userIds);
+                long removed;
+                do {
+                    removed = deleteTaskChunk(userTasks);
+                } while (removed > 0);
+                passwordResetTokenRepository.deleteByUserIdIn(userIds);
+                taskStatsService.clearUsers(userIds);
+                return userRepository.deleteByIdIn(userIds);
+            });
+            deleted += count == null ? 0 : count;
+        } while (count != null && count == DELETE_CHUNK_SIZE);
+        principalStateCache.evictAll();
+        userCache.evictAll();
+        taskCountCache.evictAll();
+        taskPageCache.evictAll();
+        return deleted;
+    }
+
+    @Override
+    public PurgeJobReadOnlyDTO startUserTasksPurge(Long userId, String userUuid) {
+        return start("Tasks of user " + userUuid, userUuid, () -> deleteUserTasks(userId, userUuid));
+    }
+
+    @Override
+    public PurgeJobReadOnlyDTO startAllTasksPurge() {
+        return start("All tasks", null, this::deleteAllTasks);
+    }
+
+    @Override
+    public PurgeJobReadOnlyDTO startAllUsersPurge() {
+        return start("All users", null, this::deleteAllUsers);
+    }
+
+    @Override
+    public PurgeJobReadOnlyDTO getJob(String jobId) throws AppObjectNotFoundException {
+        PurgeJob job = jobs.getIfPresent(jobId);
+        if (job == null) throw new AppObjectNotFoundException("Purge", "Purge job " + jobId + " not found");
+        return job.toReadOnlyDTO();
+    }
+
+    @Override
+    public PurgeJobReadOnlyDTO getUserJob(String jobId, String userUuid) throws AppObjectNotFoundException {
+        PurgeJob job = jobs.getIfPresent(jobId);
+        if (job == null || !userUuid.equals(job.ownerUuid)) throw new AppObjectNotFoundException("Purge", "Purge job " + jobId + " not found");
+        return job.toReadOnlyDTO();
+    }
+
+    private PurgeJobReadOnlyDTO start(String target, String ownerUuid, LongSupplier purge) {
+        PurgeJob job = new PurgeJob(UUID.randomUUID().toString(), target, ownerUuid);
+        jobs.put(job.id, job);
+        taskExecutor.execute(() -> {
+            try {
+                job.complete(purge.getAsLong());
+                LOGGER.info("Purge {} of {} completed, {} rows deleted", job.id, target, job.deleted);
+            } catch (RuntimeException e) {
+                job.fail(e);
+                LOGGER.error("Purge {} of {} failed", job.id, target, e);
+            }
+        });
+        return job.toReadOnlyDTO();
+    }
+
+    private long deleteTasksInChunks(Specification<Task> spec) {
+        long deleted = 0;
+        Long count;
+        do {
+            count = transactionTemplate.execute(status -> deleteTaskChunk(spec));
+            deleted += count == null ? 0 : count;
+        } while (count != null && count == DELETE_CHUNK_SIZE);
+        return deleted;
+    }
+
+    // The counters are adjusted by what the chunk deleted, in its transaction, so they never drift from the tasks
+    private long deleteTaskChunk(Specification<Task> spec) {
+        long deleted = 0;
+        for (TaskStatusChange change : taskRepository.deleteChunk(spec, DELETE_CHUNK_SIZE)) {
+            taskStatsService.adjust(change.userId(), change.from(), -change.count());
+            deleted += change.count();
+        }
+        return deleted;
+    }
+
+    private static class PurgeJob {
+        private final String id;
+        private final String target;
+        private final String ownerUuid;
+        private final Instant startedAt = Instant.now();
+        private volatile PurgeStatus status = PurgeStatus.RUNNING;
+        private volatile long deleted;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private PurgeJob(String id, String target, String ownerUuid) {
+            this.id = id;
+            this.target = target;
+            this.ownerUuid = ownerUuid;
+        }
+
+        private void complete(long deleted) {
+            this.deleted = deleted;
+            this.finishedAt = Instant.now();
+            this.status = PurgeStatus.COMPLETED;
+        }
+
+        private void fail(Exception e) {
+            this.error = e.getMessage();
+            this.finishedAt = Instant.now();
+            this.status = PurgeStatus.FAILED;
+        }
+
+        private PurgeJobReadOnlyDTO toReadOnlyDTO() {
+            return new PurgeJobReadOnlyDTO(id, target, status.name(), deleted, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -1,61 +1,188 @@
 package gr.aueb.cf.springtaskrest.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.springtaskrest.core.cache.TaskCountCache;
+import gr.aueb.cf.springtaskrest.core.cache.TaskPageCache;
+import gr.aueb.cf.springtaskrest.core.cache.UserCache;
+import gr.aueb.cf.springtaskrest.core.enums.BulkItemStatus;
+import gr.aueb.cf.springtaskrest.core.enums.ExportFormat;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.core.etag.ETags;
+import gr.aueb.cf.springtaskrest.core.etag.Versioned;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectPreconditionFailedException;
+import gr.aueb.cf.springtaskrest.core.export.ExportColumns;
+import gr.aueb.cf.springtaskrest.core.export.ExportWriter;
+import gr.aueb.cf.springtaskrest.core.filters.GenericFilters;
+import gr.aueb.cf.springtaskrest.core.filters.KeysetCursor;
 import gr.aueb.cf.springtaskrest.core.filters.TaskFilters;
+import gr.aueb.cf.springtaskrest.core.search.TaskSearchIndexInitializer;
+import gr.aueb.cf.springtaskrest.core.specifications.KeysetSpecification;
 import gr.aueb.cf.springtaskrest.core.specifications.TaskSpecification;
 import gr.aueb.cf.springtaskrest.dto.*;
 import gr.aueb.cf.springtaskrest.mapper.Mapper;
 import gr.aueb.cf.springtaskrest.model.Task;
-import gr.aueb.cf.springtaskrest.model.User;
 import gr.aueb.cf.springtaskrest.repository.TaskRepository;
+import gr.aueb.cf.springtaskrest.repository.TaskStatusChange;
+import gr.aueb.cf.springtaskrest.repository.TaskStatusUpdateChunk;
 import gr.aueb.cf.springtaskrest.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 public class TaskService implements ITaskService {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final Mapper mapper;
+    private final TaskCountCache taskCountCache;
+    private final TaskPageCache taskPageCache;
+    private final UserCache userCache;
+    private final PurgeService purgeService;
+    private final TaskStatsService taskStatsService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskSearchIndexInitializer taskSearchIndexInitializer;
 
+    private static final int MAX_BULK_SIZE = 5_000;
+
+    @Transactional(readOnly = true)
     @Override
     public TaskReadOnlyDTO findTaskByUuid(String uuid) throws AppObjectNotFoundException {
         Task task = taskRepository.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + uuid + " not found"));
         return mapper.mapToTaskReadOnly(task);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public TaskReadOnlyDTO findTaskByUserUuidAndTaskTitle(String uuid, String taskTitle) throws AppObjectNotFoundException {
-        User user = userRepository.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User " + uuid + " not found"));
-        Task task = taskRepository.findByTitleAndUser(taskTitle, user).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with title " + taskTitle + " not found"));
+        Task task = taskRepository.findByTitleAndUserId(taskTitle, getUserId(uuid)).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with title " + taskTitle + " not found"));
         return mapper.mapToTaskReadOnly(task);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public TaskReadOnlyDTO findTaskByUserUuidAndTaskUuid(String uuid, String taskUuid) throws AppObjectNotFoundException {
-        User user = userRepository.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User " + uuid + " not found"));
-        Task task = taskRepository.findByUuidAndUser(taskUuid, user).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
+        Task task = taskRepository.findByUuidAndUserId(taskUuid, getUserId(uuid)).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
         return mapper.mapToTaskReadOnly(task);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public Paginated<TaskReadOnlyDTO> getFilteredPaginatedTasks(TaskFiltersDTO filters) {
-        TaskFilters taskFilters = mapper.mapToTaskFilters(filters);
-        return new Paginated<>(taskRepository.findAll(getSpecsFromFilters(taskFilters), taskFilters.getPageable()).map(mapper::mapToTaskReadOnly));
+    public TaskReadOnlyDTO findTaskByUserIdAndTaskUuid(Long userId, String taskUuid) throws AppObjectNotFoundException {
+        Task task = taskRepository.findByUuidAndUserId(taskUuid, userId).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
+        return mapper.mapToTaskReadOnly(task);
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public List<TaskReadOnlyDTO> getFilteredTasks(TaskFiltersDTO filters) {
-        TaskFilters taskFilters = mapper.mapToTaskFilters(filters);
-        return taskRepository.findAll(getSpecsFromFilters(taskFilters)).stream().map(mapper::mapToTaskReadOnly).collect(Collectors.toList());
+    public String getTaskETag(String userUuid, String taskUuid) throws AppObjectNotFoundException {
+        return taskRepository.findVersionByUuidAndUserUuid(taskUuid, userUuid)
+                .orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"))
+                .toETag();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public String getTaskETagForUserId(Long userId, String taskUuid) throws AppObjectNotFoundException {
+        return taskRepository.findVersionByUuidAndUserId(taskUuid, userId)
+                .orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"))
+                .toETag();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Paginated<TaskReadOnlyDTO> getFilteredPaginatedTasks(TaskFiltersDTO filters) throws AppObjectInvalidArgumentException {
+        TaskFilters taskFilters = toTaskFilters(filters);
+        GenericFilters.checkPageSize(taskFilters.getSize());
+        if (taskFilters.isCursorMode()) {
+            return getTasksAfterCursor(taskFilters);
+        }
+        // Keyset pages are not cached, each cursor is usually requested once
+        return taskPageCache.getPage(taskFilters, () -> findPage(taskFilters));
+    }
+
+    // Tagged with a hash of the page itself: nothing beyond the page is queried, whatever the count or pagination
+    // mode, and cached pages stay cached. A 304 saves the transfer, not the page query.
+    @Transactional(readOnly = true)
+    @Override
+    public Versioned<Paginated<TaskReadOnlyDTO>> getVersionedFilteredPaginatedTasks(TaskFiltersDTO filters) throws AppObjectInvalidArgumentException {
+        Paginated<TaskReadOnlyDTO> page = getFilteredPaginatedTasks(filters);
+        try {
+            return new Versioned<>(page, ETags.ofContent(objectMapper.writeValueAsBytes(page)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public CacheStatsReadOnlyDTO getTaskPageCacheStats() {
+        return taskPageCache.getStats();
+    }
+
+    private Paginated<TaskReadOnlyDTO> findPage(TaskFilters taskFilters) {
+        Specification<Task> spec = getSpecsFromFilters(taskFilters);
+        return switch (taskFilters.getCountMode()) {
+            case EXACT -> new Paginated<>(taskRepository.findReadOnlyPage(spec, taskFilters.getPageable()));
+            case NONE -> Paginated.ofSlice(taskRepository.findReadOnlySlice(spec, taskFilters.getPageable()), null);
+            case CACHED -> {
+                Slice<TaskReadOnlyDTO> slice = taskRepository.findReadOnlySlice(spec, taskFilters.getPageable());
+                long totalItems = taskCountCache.getCount(taskFilters, () -> taskRepository.count(spec));
+                yield Paginated.ofSlice(slice, totalItems);
+            }
+        };
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<TaskReadOnlyDTO> getFilteredTasks(TaskFiltersDTO filters) throws AppObjectInvalidArgumentException {
+        TaskFilters taskFilters = toTaskFilters(filters);
+        return taskRepository.findReadOnlyAll(getSpecsFromFilters(taskFilters), taskFilters.getSort());
+    }
+
+    // Read-only transaction keeps the connection open while the rows are streamed to the client
+    @Transactional(readOnly = true)
+    @Override
+    public void exportFilteredTasks(TaskFiltersDTO filters, ExportFormat format, OutputStream outputStream) throws IOException, AppObjectInvalidArgumentException {
+        TaskFilters taskFilters = toTaskFilters(filters);
+        try (Stream<TaskReadOnlyDTO> tasks = taskRepository.streamReadOnly(getSpecsFromFilters(taskFilters), taskFilters.getSort());
+             ExportWriter<TaskReadOnlyDTO> writer = ExportWriter.open(format, outputStream, objectMapper, ExportColumns.TASKS)) {
+            Iterator<TaskReadOnlyDTO> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
     }
 
     @Transactional(rollbackFor = {AppObjectNotFoundException.class})
@@ -63,57 +190,270 @@ public class TaskService implements ITaskService {
     public void deleteTaskByUuid(String uuid) throws AppObjectNotFoundException {
         Task task = taskRepository.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + uuid + " not found"));
         taskRepository.delete(task);
+        taskStatsService.adjust(task.getUser().getId(), task.getStatus(), -1);
+        taskCountCache.evictUser(task.getUser().getUuid());
+        taskPageCache.evictUser(task.getUser().getUuid());
     }
 
     @Override
     public void deleteAllTasks() {
-        taskRepository.deleteAll();
+        purgeService.deleteAllTasks();
     }
 
-    @Transactional(rollbackFor = {AppObjectNotFoundException.class})
+    // Not transactional, the purge commits chunk by chunk
     @Override
     public void deleteAllUserTasks(String uuid) throws AppObjectNotFoundException {
-        if (userRepository.findByUuid(uuid).isEmpty()) throw new AppObjectNotFoundException("User", "User with uuid " + uuid + " not found");
-        taskRepository.deleteByUserUuid(uuid);
+        purgeService.deleteUserTasks(getUserId(uuid), uuid);
     }
 
     @Transactional(rollbackFor = {AppObjectNotFoundException.class, AppObjectAlreadyExistsException.class})
     @Override
     public TaskReadOnlyDTO createTask(String userUuid, TaskInsertDTO taskInsertDTO) throws AppObjectAlreadyExistsException, AppObjectNotFoundException {
-        User user = userRepository.findByUuid(userUuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User " + userUuid + " not found"));
-        if(taskRepository.findByTitleAndUser(taskInsertDTO.title(), user).isPresent()){
+        UserReadOnlyDTO owner = userCache.findByUuid(userUuid)
+                .orElseThrow(() -> new AppObjectNotFoundException("User", "User " + userUuid + " not found"));
+        return insertTask(owner, taskInsertDTO);
+    }
+
+    @Transactional(rollbackFor = {AppObjectAlreadyExistsException.class})
+    @Override
+    public TaskReadOnlyDTO createTaskForUser(UserReadOnlyDTO owner, TaskInsertDTO taskInsertDTO) throws AppObjectAlreadyExistsException {
+        return insertTask(owner, taskInsertDTO);
+    }
+
+    // The owner is already known, so users is never queried: the reference only sets the foreign key and is
+    // not initialized, the returned task carries the given owner
+    private TaskReadOnlyDTO insertTask(UserReadOnlyDTO owner, TaskInsertDTO taskInsertDTO) throws AppObjectAlreadyExistsException {
+        if (taskRepository.existsByTitleAndUserId(taskInsertDTO.title(), owner.id())) {
             throw new AppObjectAlreadyExistsException("Task", "Task with title " + taskInsertDTO.title() + " already exists");
         }
         Task task = mapper.mapToTask(taskInsertDTO);
-        task.setUser(user);
+        task.setUser(userRepository.getReferenceById(owner.id()));
         Task savedTask = taskRepository.save(task);
-        return mapper.mapToTaskReadOnly(savedTask);
+        taskStatsService.adjust(owner.id(), savedTask.getStatus(), 1);
+        taskCountCache.evictUser(owner.uuid());
+        taskPageCache.evictUser(owner.uuid());
+        return mapper.mapToTaskReadOnly(savedTask, owner);
     }
 
-    @Transactional(rollbackFor = {AppObjectNotFoundException.class, AppObjectAlreadyExistsException.class})
+    @Transactional(rollbackFor = {AppObjectNotFoundException.class, AppObjectInvalidArgumentException.class})
+    @Override
+    public TaskBulkResultDTO createTasks(String userUuid, List<TaskInsertDTO> taskInsertDTOs) throws AppObjectNotFoundException, AppObjectInvalidArgumentException {
+        UserReadOnlyDTO owner = userCache.findByUuid(userUuid)
+                .orElseThrow(() -> new AppObjectNotFoundException("User", "User " + userUuid + " not found"));
+        return insertTasks(owner, taskInsertDTOs);
+    }
+
+    @Transactional(rollbackFor = {AppObjectInvalidArgumentException.class})
+    @Override
+    public TaskBulkResultDTO createTasksForUser(UserReadOnlyDTO owner, List<TaskInsertDTO> taskInsertDTOs) throws AppObjectInvalidArgumentException {
+        return insertTasks(owner, taskInsertDTOs);
+    }
+
+    // Each chunk commits in its own short transaction together with its counter adjustments, so a large update
+    // holds neither one long transaction nor its locks; a failure leaves the chunks committed so far in place
+    @Override
+    public TaskStatusUpdateResultDTO updateTasksStatus(TaskStatusUpdateDTO dto) throws AppObjectInvalidArgumentException {
+        TaskFilters taskFilters = toTaskFilters(dto.filters() == null ? new TaskFiltersDTO() : dto.filters());
+        TaskStatus status = TaskStatus.valueOf(dto.status());
+        Specification<Task> spec = getSpecsFromFilters(taskFilters);
+        long updated = 0;
+        try {
+            TaskStatusUpdateChunk chunk;
+            long lastId = 0;
+            do {
+                long afterId = lastId;
+                chunk = transactionTemplate.execute(tx -> {
+                    TaskStatusUpdateChunk updatedChunk = taskRepository.updateStatusChunk(spec, status, afterId);
+                    for (TaskStatusChange change : updatedChunk.changes()) {
+                        taskStatsService.adjust(change.userId(), change.from(), -change.count());
+                        taskStatsService.adjust(change.userId(), status, change.count());
+                    }
+                    return updatedChunk;
+                });
+                updated += chunk.updated();
+                lastId = chunk.lastId();
+            } while (!chunk.last());
+        } finally {
+            if (updated > 0) {
+                if (taskFilters.getUserUuid() != null) {
+                    taskCountCache.evictUser(taskFilters.getUserUuid());
+                    taskPageCache.evictUser(taskFilters.getUserUuid());
+                } else {
+                    taskCountCache.evictAll();
+                    taskPageCache.evictAll();
+                }
+            }
+        }
+        return new TaskStatusUpdateResultDTO(status.name(), updated);
+    }
+
+    @Transactional(rollbackFor = {AppObjectNotFoundException.class, AppObjectAlreadyExistsException.class, AppObjectPreconditionFailedException.class})
     @Override
-    public TaskReadOnlyDTO updateTask(String userUuid, String taskUuid, TaskUpdateDTO taskUpdateDTO) throws AppObjectNotFoundException, AppObjectAlreadyExistsException {
-        User user = userRepository.findByUuid(userUuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User " + userUuid + " not found"));
-        Task task = taskRepository.findByUuidAndUser(taskUuid, user).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
-        Optional<Task> fetchByTitle = taskRepository.findByTitleAndUser(taskUpdateDTO.title(), user);
+    public Versioned<TaskReadOnlyDTO> updateTask(String userUuid, String taskUuid, TaskUpdateDTO taskUpdateDTO, String ifMatch) throws AppObjectNotFoundException, AppObjectAlreadyExistsException, AppObjectPreconditionFailedException {
+        Long userId = getUserId(userUuid);
+        Task task = taskRepository.findByUuidAndUserId(taskUuid, userId).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
+        checkIfMatch(task, ifMatch);
+        Optional<Task> fetchByTitle = taskRepository.findByTitleAndUserId(taskUpdateDTO.title(), userId);
         if (fetchByTitle.isPresent() && !fetchByTitle.get().getUuid().equals(task.getUuid())){
             throw new AppObjectAlreadyExistsException("Task", "Task with title " + taskUpdateDTO.title() + " already exists");
         }
+        TaskStatus previousStatus = task.getStatus();
         Task toUpdate = mapper.mapToTask(taskUpdateDTO, task);
-        Task updatedTask = taskRepository.save(toUpdate);
-        return mapper.mapToTaskReadOnly(updatedTask);
+        // Flushed so that the returned ETag carries the incremented version
+        Task updatedTask = taskRepository.saveAndFlush(toUpdate);
+        taskStatsService.statusChanged(updatedTask.getUser().getId(), previousStatus, updatedTask.getStatus());
+        taskCountCache.evictUser(updatedTask.getUser().getUuid());
+        taskPageCache.evictUser(updatedTask.getUser().getUuid());
+        return new Versioned<>(mapper.mapToTaskReadOnly(updatedTask), eTagOf(updatedTask));
     }
 
+    @Transactional(rollbackFor = {AppObjectNotFoundException.class, AppObjectAlreadyExistsException.class, AppObjectPreconditionFailedException.class})
+    @Override
+    public Versioned<TaskReadOnlyDTO> updateTaskForUserId(Long userId, String taskUuid, TaskUpdateDTO taskUpdateDTO, String ifMatch) throws AppObjectNotFoundException, AppObjectAlreadyExistsException, AppObjectPreconditionFailedException {
+        Task task = taskRepository.findByUuidAndUserId(taskUuid, userId).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
+        checkIfMatch(task, ifMatch);
+        Optional<Task> fetchByTitle = taskRepository.findByTitleAndUserId(taskUpdateDTO.title(), userId);
+        if (fetchByTitle.isPresent() && !fetchByTitle.get().getUuid().equals(task.getUuid())){
+            throw new AppObjectAlreadyExistsException("Task", "Task with title " + taskUpdateDTO.title() + " already exists");
+        }
+        TaskStatus previousStatus = task.getStatus();
+        Task toUpdate = mapper.mapToTask(taskUpdateDTO, task);
+        // Flushed so that the returned ETag carries the incremented version
+        Task updatedTask = taskRepository.saveAndFlush(toUpdate);
+        taskStatsService.statusChanged(updatedTask.getUser().getId(), previousStatus, updatedTask.getStatus());
+        taskCountCache.evictUser(updatedTask.getUser().getUuid());
+        taskPageCache.evictUser(updatedTask.getUser().getUuid());
+        return new Versioned<>(mapper.mapToTaskReadOnly(updatedTask), eTagOf(updatedTask));
+    }
+
+    @Transactional(rollbackFor = {AppObjectNotFoundException.class})
     @Override
     public void deleteTaskByUuidAndUserUuid(String uuid, String taskUuid) throws AppObjectNotFoundException {
-        User user = userRepository.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User " + uuid + " not found"));
-        Task task = taskRepository.findByUuidAndUser(taskUuid, user).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
+        Long userId = getUserId(uuid);
+        Task task = taskRepository.findByUuidAndUserId(taskUuid, userId).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
         taskRepository.delete(task);
+        taskStatsService.adjust(userId, task.getStatus(), -1);
+        taskCountCache.evictUser(uuid);
+        taskPageCache.evictUser(uuid);
     }
 
+    @Transactional(rollbackFor = {AppObjectNotFoundException.class})
+    @Override
+    public void deleteTaskByUserIdAndTaskUuid(Long userId, String taskUuid) throws AppObjectNotFoundException {
+        Task task = taskRepository.findByUuidAndUserId(taskUuid, userId).orElseThrow(() -> new AppObjectNotFoundException("Task", "Task with uuid " + taskUuid + " not found"));
+        taskRepository.delete(task);
+        taskStatsService.adjust(userId, task.getStatus(), -1);
+        taskCountCache.evictUser(task.getUser().getUuid());
+        taskPageCache.evictUser(task.getUser().getUuid());
+    }
+
+
+    /**
+     * Validates every item, checks all titles against the user's tasks with one query and inserts the
+     * accepted ones with JDBC batching. Invalid and duplicate items are reported, not thrown, so one bad
+     * row does not reject the whole import. Titles are compared case-insensitively, like the database does.
+     */
+    private TaskBulkResultDTO insertTasks(UserReadOnlyDTO owner, List<TaskInsertDTO> taskInsertDTOs) throws AppObjectInvalidArgumentException {
+        Long userId = owner.id();
+        if (taskInsertDTOs.size() > MAX_BULK_SIZE) {
+            throw new AppObjectInvalidArgumentException("Task", "At most " + MAX_BULK_SIZE + " tasks can be created at once");
+        }
+        // Titles are compared lower-cased on both sides, in the root locale so that the default locale cannot change them
+        List<String> titles = taskInsertDTOs.stream().filter(Objects::nonNull).map(TaskInsertDTO::title).filter(Objects::nonNull)
+                .map(title -> title.toLowerCase(Locale.ROOT)).distinct().toList();
+        Set<String> takenTitles = new HashSet<>();
+        if (!titles.isEmpty()) {
+            taskRepository.findTitlesByUserIdAndLowerTitleIn(userId, titles).forEach(title -> takenTitles.add(title.toLowerCase(Locale.ROOT)));
+        }
+
+        TaskBulkItemResultDTO[] results = new TaskBulkItemResultDTO[taskInsertDTOs.size()];
+        Map<Integer, Task> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < taskInsertDTOs.size(); i++) {
+            TaskInsertDTO dto = taskInsertDTOs.get(i);
+            if (dto == null) {
+                results[i] = new TaskBulkItemResultDTO(i, BulkItemStatus.INVALID.name(), null, "Task cannot be null");
+                continue;
+            }
+            Set<ConstraintViolation<TaskInsertDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                String message = violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()).sorted().collect(Collectors.joining("; "));
+                results[i] = new TaskBulkItemResultDTO(i, BulkItemStatus.INVALID.name(), null, message);
+                continue;
+            }
+            if (!takenTitles.add(dto.title().toLowerCase(Locale.ROOT))) {
+                results[i] = new TaskBulkItemResultDTO(i, BulkItemStatus.DUPLICATE.name(), null, "Task with title " + dto.title() + " already exists");
+                continue;
+            }
+            accepted.put(i, mapper.mapToTask(dto));
+        }
 
-    private Specification<Task> getSpecsFromFilters(TaskFilters filters) {
-        Specification<Task> spec = (root, query, builder) -> null;
+        if (!accepted.isEmpty()) {
+            List<Task> tasks = new ArrayList<>(accepted.values());
+            taskRepository.batchInsert(userId, tasks);
+            tasks.stream()
+                    .collect(Collectors.groupingBy(Task::getStatus, Collectors.counting()))
+                    .forEach((status, count) -> taskStatsService.adjust(userId, status, count));
+            Map<String, TaskReadOnlyDTO> created = taskRepository
+                    .findReadOnlyAll(TaskSpecification.taskUuidIn(tasks.stream().map(Task::getUuid).toList()), Sort.unsorted())
+                    .stream()
+                    .collect(Collectors.toMap(TaskReadOnlyDTO::uuid, Function.identity()));
+            accepted.forEach((index, task) ->
+                    results[index] = new TaskBulkItemResultDTO(index, BulkItemStatus.CREATED.name(), created.get(task.getUuid()), null));
+            taskCountCache.evictUser(owner.uuid());
+            taskPageCache.evictUser(owner.uuid());
+        }
+        return new TaskBulkResultDTO(accepted.size(), taskInsertDTOs.size() - accepted.size(), Arrays.asList(results));
+    }
+
+    private Long getUserId(String userUuid) throws AppObjectNotFoundException {
+        return userCache.findByUuid(userUuid)
+                .map(UserReadOnlyDTO::id)
+                .orElseThrow(() -> new AppObjectNotFoundException("User", "User " + userUuid + " not found"));
+    }
+
+    private static String eTagOf(Task task) {
+        return ETags.of(task.getVersion(), task.getUser().getVersion());
+    }
+
+    // A missing If-Match keeps the unconditional behaviour; the version column still rejects concurrent writes
+    private static void checkIfMatch(Task task, String ifMatch) throws AppObjectPreconditionFailedException {
+        if (ifMatch != null && !ETags.matches(ifMatch, eTagOf(task))) {
+            throw new AppObjectPreconditionFailedException("Task", "Task with uuid " + task.getUuid() + " has been modified");
+        }
+    }
+
+    // MATCH ... AGAINST fails on a database without the FULLTEXT index, reject the filter up front instead
+    private TaskFilters toTaskFilters(TaskFiltersDTO filters) throws AppObjectInvalidArgumentException {
+        TaskFilters taskFilters = mapper.mapToTaskFilters(filters);
+        if (taskFilters.getSearch() != null && !taskSearchIndexInitializer.isAvailable()) {
+            throw new AppObjectInvalidArgumentException("Search", "Full-text search is not available on this database");
+        }
+        return taskFilters;
+    }
+
+    private Paginated<TaskReadOnlyDTO> getTasksAfterCursor(TaskFilters filters) throws AppObjectInvalidArgumentException {
+        String sortField = filters.getSortField();
+        if (!TaskSpecification.keysetSortFields.contains(sortField)) {
+            throw new AppObjectInvalidArgumentException("Cursor", "Cursor pagination is not supported when sorting by " + sortField);
+        }
+        Specification<Task> spec = getSpecsFromFilters(filters);
+        if (filters.getCursor() != null) {
+            KeysetCursor cursor = KeysetCursor.decode(filters.getCursor());
+            if (!cursor.matches(sortField, filters.getSortDirection())) {
+                throw new AppObjectInvalidArgumentException("Cursor", "Cursor does not match the requested sort order");
+            }
+            spec = spec.and(KeysetSpecification.after(cursor));
+        }
+        Slice<Task> slice = taskRepository.findSlice(spec, filters.getKeysetPageable());
+        String nextCursor = slice.hasNext()
+                ? KeysetCursor.fromEntity(slice.getContent().get(slice.getNumberOfElements() - 1), sortField, filters.getSortDirection()).encode()
+                : null;
+        return Paginated.ofCursor(slice.map(mapper::mapToTaskReadOnly).getContent(), filters.getPageSize(), nextCursor);
+    }
+
+    // Package-private for the jmh benchmarks
+    static Specification<Task> getSpecsFromFilters(TaskFilters filters) {
+        Specification<Task> spec = TaskSpecification.fetchUser();
         if (filters.getUuid() != null) {
             spec = spec.and(TaskSpecification.tasksFieldLike("uuid", filters.getUuid()));
         }
@@ -122,6 +462,12 @@ public class TaskService implements ITaskService {
             spec = spec.and(TaskSpecification.tasksFieldLike("title", filters.getTitle()));
         }
 
+        if (filters.getSearch() != null) {
+            // Rank by relevance unless the caller asked for an explicit order; keyset pages need a stable one
+            boolean rankByRelevance = filters.getSortBy() == null && !filters.isCursorMode();
+            spec = spec.and(TaskSpecification.tasksMatchSearch(filters.getSearch(), rankByRelevance));
+        }
+
         if (filters.getStatus() != null) {
             spec = spec.and(TaskSpecification.taskStatusIn(filters.getStatus()));
         }
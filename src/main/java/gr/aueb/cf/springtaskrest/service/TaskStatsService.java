@@ -0,0 +1,125 @@
+package gr.aueb.cf.springtaskrest.service;
+
+import gr.aueb.cf.springtaskrest.core.cache.UserCache;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.dto.TaskStatsReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.dto.UserReadOnlyDTO;
+import gr.aueb.cf.springtaskrest.model.TaskStatusCounter;
+import gr.aueb.cf.springtaskrest.repository.TaskRepository;
+import gr.aueb.cf.springtaskrest.repository.TaskStatusCounterRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Task counts per status, read from the {@code task_status_counters} table. The counters are adjusted by
+ * the task writes, purge chunks included, in the same transaction as the write itself, so they never drift
+ * from the tasks table on commit or rollback.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskStatsService implements ITaskStatsService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskStatsService.class);
+
+    private final TaskStatusCounterRepository counterRepository;
+    private final TaskRepository taskRepository;
+    private final UserCache userCache;
+
+    @Transactional(readOnly = true)
+    @Override
+    public TaskStatsReadOnlyDTO getUserStats(Long userId) {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatusCounter counter : counterRepository.findByIdUserId(userId)) {
+            counts.put(counter.getId().getStatus(), counter.getTaskCount());
+        }
+        return toReadOnlyDTO(counts);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public TaskStatsReadOnlyDTO getUserStats(String userUuid) throws AppObjectNotFoundException {
+        UserReadOnlyDTO user = userCache.findByUuid(userUuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User " + userUuid + " not found"));
+        return getUserStats(user.id());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public TaskStatsReadOnlyDTO getGlobalStats() {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (Object[] row : counterRepository.sumByStatus()) {
+            counts.put((TaskStatus) row[0], ((Number) row[1]).longValue());
+        }
+        return toReadOnlyDTO(counts);
+    }
+
+    // Joins the caller's transaction, the counters commit or roll back with the task write
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void adjust(Long userId, TaskStatus status, long delta) {
+        if (status == null || delta == 0) return;
+        counterRepository.increment(userId, status.name(), delta);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void statusChanged(Long userId, TaskStatus from, TaskStatus to) {
+        if (from == to) return;
+        adjust(userId, from, -1);
+        adjust(userId, to, 1);
+    }
+
+    @Transactional
+    @Override
+    public void clearUser(Long userId) {
+        counterRepository.deleteByUserId(userId);
+    }
+
+    // For users deleted in the caller's transaction, whose counters have been adjusted down to zero
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void clearUsers(Collection<Long> userIds) {
+        counterRepository.deleteByUserIdIn(userIds);
+    }
+
+    /**
+     * Recounts every user's tasks in one grouped statement. Only needed to initialize the counters on an
+     * existing database, or to repair them after tasks were changed outside the application.
+     */
+    @Transactional
+    @Override
+    public void rebuild() {
+        counterRepository.deleteAllInBatch();
+        int rows = counterRepository.insertFromTasks();
+        LOGGER.info("Task status counters rebuilt, {} counters", rows);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initializeCounters() {
+        if (counterRepository.count() == 0 && taskRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private static TaskStatsReadOnlyDTO toReadOnlyDTO(Map<TaskStatus, Long> counts) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (TaskStatus status : TaskStatus.values()) {
+            long count = counts.getOrDefault(status, 0L);
+            byStatus.put(status.name(), count);
+            total += count;
+        }
+        return new TaskStatsReadOnlyDTO(total, byStatus);
+    }
+}
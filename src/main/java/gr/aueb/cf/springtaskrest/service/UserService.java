@@ -1,19 +1,34 @@
 package gr.aueb.cf.springtaskrest.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import gr.aueb.cf.springtaskrest.authentication.AuthenticationService;
+import gr.aueb.cf.springtaskrest.authentication.PrincipalStateCache;
+import gr.aueb.cf.springtaskrest.core.cache.TaskCountCache;
+import gr.aueb.cf.springtaskrest.core.cache.TaskPageCache;
+import gr.aueb.cf.springtaskrest.core.cache.UserCache;
+import gr.aueb.cf.springtaskrest.core.enums.CountMode;
+import gr.aueb.cf.springtaskrest.core.enums.ExportFormat;
 import gr.aueb.cf.springtaskrest.core.enums.Role;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectAlreadyExistsException;
+import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectInvalidArgumentException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotAuthorizedException;
 import gr.aueb.cf.springtaskrest.core.exceptions.AppObjectNotFoundException;
+import gr.aueb.cf.springtaskrest.core.export.ExportColumns;
+import gr.aueb.cf.springtaskrest.core.export.ExportWriter;
+import gr.aueb.cf.springtaskrest.core.filters.GenericFilters;
+import gr.aueb.cf.springtaskrest.core.filters.KeysetCursor;
 import gr.aueb.cf.springtaskrest.core.filters.UserFilters;
+import gr.aueb.cf.springtaskrest.core.specifications.KeysetSpecification;
 import gr.aueb.cf.springtaskrest.core.specifications.UserSpecification;
 import gr.aueb.cf.springtaskrest.dto.*;
 import gr.aueb.cf.springtaskrest.mapper.Mapper;
 import gr.aueb.cf.springtaskrest.model.User;
 import gr.aueb.cf.springtaskrest.repository.UserRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -21,45 +36,87 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed
 @RequiredArgsConstructor
 public class UserService implements IUserService {
     private final UserRepository userRepository;
     private final Mapper mapper;
     private final AuthenticationService authenticationService;
-
+    private final PrincipalStateCache principalStateCache;
+    private final TaskCountCache taskCountCache;
+    private final TaskPageCache taskPageCache;
+    private final UserCache userCache;
+    private final PurgeService purgeService;
+    private final TaskStatsService taskStatsService;
+    private final ObjectMapper objectMapper;
+
+    // Not transactional: served from the cache, a miss loads through a read-only repository query
     @Override
     public UserReadOnlyDTO findByUsername(String username) throws AppObjectNotFoundException {
-        User user = userRepository.findByUsername(username).orElseThrow(() -> new AppObjectNotFoundException("User", "User with username " + username + " not found"));
-        return mapper.mapToUserReadOnly(user);
+        return userCache.findByUsername(username).orElseThrow(() -> new AppObjectNotFoundException("User", "User with username " + username + " not found"));
     }
 
     @Override
     public UserReadOnlyDTO findByUuid(String uuid) throws AppObjectNotFoundException {
-        User user = userRepository.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User with uuid " + uuid + " not found"));
-        return mapper.mapToUserReadOnly(user);
+        return userCache.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User with uuid " + uuid + " not found"));
+    }
+
+    @Override
+    public List<CacheStatsReadOnlyDTO> getUserCacheStats() {
+        return userCache.getStats();
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public Paginated<UserReadOnlyDTO> getUsersFilteredPaginated(UserFiltersDTO filters) {
+    public Paginated<UserReadOnlyDTO> getUsersFilteredPaginated(UserFiltersDTO filters) throws AppObjectInvalidArgumentException {
         UserFilters userFilters = mapper.mapToUserFilters(filters);
-        var filtered = userRepository.findAll(getSpecsFromFilters(userFilters), userFilters.getPageable());
-        return new Paginated<>(filtered.map(mapper::mapToUserReadOnly));
+        GenericFilters.checkPageSize(userFilters.getSize());
+        if (userFilters.isCursorMode()) {
+            return getUsersAfterCursor(userFilters);
+        }
+        if (userFilters.getCountMode() == CountMode.CACHED) {
+            throw new AppObjectInvalidArgumentException("Filters", "Count mode CACHED is only supported for tasks");
+        }
+        if (userFilters.getCountMode() == CountMode.NONE) {
+            return Paginated.ofSlice(userRepository.findReadOnlySlice(getSpecsFromFilters(userFilters), userFilters.getPageable()), null);
+        }
+        return new Paginated<>(userRepository.findReadOnlyPage(getSpecsFromFilters(userFilters), userFilters.getPageable()));
     }
 
+    @Transactional(readOnly = true)
     @Override
-    public Page<UserReadOnlyDTO> getUsersPaginated(int page, int pageSize) {
+    public Page<UserReadOnlyDTO> getUsersPaginated(int page, int pageSize) throws AppObjectInvalidArgumentException {
+        GenericFilters.checkPageSize(pageSize);
         return userRepository.findAll(PageRequest.of(page, pageSize)).map(mapper::mapToUserReadOnly);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<UserReadOnlyDTO> getUsersFiltered(UserFiltersDTO filters) {
         UserFilters userFilters = mapper.mapToUserFilters(filters);
-        return userRepository.findAll(getSpecsFromFilters(userFilters)).stream().map(mapper::mapToUserReadOnly).collect(Collectors.toList());
+        return userRepository.findReadOnlyAll(getSpecsFromFilters(userFilters), userFilters.getSort());
+    }
+
+    // Read-only transaction keeps the connection open while the rows are streamed to the client
+    @Transactional(readOnly = true)
+    @Override
+    public void exportFilteredUsers(UserFiltersDTO filters, ExportFormat format, OutputStream outputStream) throws IOException {
+        UserFilters userFilters = mapper.mapToUserFilters(filters);
+        try (Stream<UserReadOnlyDTO> users = userRepository.streamReadOnly(getSpecsFromFilters(userFilters), userFilters.getSort());
+             ExportWriter<UserReadOnlyDTO> writer = ExportWriter.open(format, outputStream, objectMapper, ExportColumns.USERS)) {
+            Iterator<UserReadOnlyDTO> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
     }
 
     @Transactional(rollbackFor = {AppObjectAlreadyExistsException.class})
@@ -89,6 +146,11 @@ public class UserService implements IUserService {
         if (optionalUser.isPresent() && !optionalUser.get().getUuid().equals(fetchedUser.getUuid())) {
             throw new AppObjectAlreadyExistsException("User", "User with username " + dto.username() + " already exists");
         }
+        principalStateCache.evict(fetchedUser.getUsername());
+        principalStateCache.evict(dto.username());
+        userCache.evict(uuid, fetchedUser.getUsername(), dto.username());
+        taskCountCache.evictUser(uuid);
+        taskPageCache.evictUser(uuid);
         User toUpdate = mapper.mapToUser(dto, fetchedUser);
         User updatedUser = userRepository.save(toUpdate);
         return mapper.mapToUserReadOnly(updatedUser);
@@ -100,6 +162,11 @@ public class UserService implements IUserService {
         User user = userRepository.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User with username " + uuid + " not found"));
         user.setIsActive(!user.getIsActive());
         userRepository.save(user);
+        principalStateCache.evict(user.getUsername());
+        userCache.evict(uuid, user.getUsername());
+        // Task totals filtered on userIsActive depend on this flag
+        taskCountCache.evictUser(uuid);
+        taskPageCache.evictUser(uuid);
     }
 
 
@@ -108,11 +175,16 @@ public class UserService implements IUserService {
     public void deleteUser(String uuid) throws AppObjectNotFoundException {
         User user = userRepository.findByUuid(uuid).orElseThrow(() -> new AppObjectNotFoundException("User", "User with username " + uuid + " not found"));
         userRepository.delete(user);
+        taskStatsService.clearUser(user.getId());
+        principalStateCache.evict(user.getUsername());
+        userCache.evict(uuid, user.getUsername());
+        taskCountCache.evictUser(uuid);
+        taskPageCache.evictUser(uuid);
     }
 
     @Override
     public void deleteAllUsers() {
-        userRepository.deleteAll();
+        purgeService.deleteAllUsers();
     }
 
     @Transactional(rollbackFor = {AppObjectNotFoundException.class, AppObjectNotAuthorizedException.class})
@@ -126,6 +198,7 @@ public class UserService implements IUserService {
         UserUpdateDTO updateDTO = new UserUpdateDTO(dto.newPassword());
         User updatedUser = mapper.mapToUser(updateDTO, user);
         userRepository.save(updatedUser);
+        principalStateCache.evict(username);
     }
 
     @Transactional
@@ -135,6 +208,28 @@ public class UserService implements IUserService {
         User updatedUser = mapper.mapToUser(updateDTO, user);
         updatedUser.clearPasswordResetToken();
         userRepository.save(updatedUser);
+        principalStateCache.evict(updatedUser.getUsername());
+    }
+
+    private Paginated<UserReadOnlyDTO> getUsersAfterCursor(UserFilters filters) throws AppObjectInvalidArgumentException {
+        String sortField = filters.getSortField();
+        if (!UserSpecification.keysetSortFields.contains(sortField)) {
+            throw new AppObjectInvalidArgumentException("Cursor", "Cursor pagination is not supported when sorting by " + sortField);
+        }
+        Specification<User> spec = getSpecsFromFilters(filters);
+        if (filters.getCursor() != null) {
+            KeysetCursor cursor = KeysetCursor.decode(filters.getCursor());
+            if (!cursor.matches(sortField, filters.getSortDirection())) {
+                throw new AppObjectInvalidArgumentException("Cursor", "Cursor does not match the requested sort order");
+            }
+            spec = spec.and(KeysetSpecification.after(cursor));
+        }
+        // Keyset pages load entities for the cursor values that the read-only DTO does not carry
+        Slice<User> slice = userRepository.findSlice(UserSpecification.fetchPasswordResetToken().and(spec), filters.getKeysetPageable());
+        String nextCursor = slice.hasNext()
+                ? KeysetCursor.fromEntity(slice.getContent().get(slice.getNumberOfElements() - 1), sortField, filters.getSortDirection()).encode()
+                : null;
+        return Paginated.ofCursor(slice.map(mapper::mapToUserReadOnly).getContent(), filters.getPageSize(), nextCursor);
     }
 
     private Specification<User> getSpecsFromFilters(UserFilters filters) {
@@ -0,0 +1,158 @@
+package gr.aueb.cf.springtaskrest.core.concurrency;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Parks thousands of virtual threads on the permits of a small Hikari pool over an in-memory H2 database.
+ */
+class ConnectionLimitingDataSourceTest {
+    private static final int POOL_SIZE = 4;
+    private static final int THREADS = 5_000;
+    // Scheduling slack on top of the acquire timeout, generous enough for a loaded build machine
+    private static final long SLACK_MILLIS = 2_000;
+
+    private HikariDataSource hikari;
+
+    @AfterEach
+    void tearDown() {
+        if (hikari != null) hikari.close();
+    }
+
+    @Test
+    void virtualThreadsShareSmallPoolAndReturnEveryPermit() throws Exception {
+        long timeoutMillis = 30_000;
+        ConnectionLimitingDataSource dataSource = limiting(timeoutMillis);
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger maxInUse = new AtomicInteger();
+        AtomicInteger queried = new AtomicInteger();
+
+        List<Long> waits = runOnVirtualThreads(() -> {
+            long start = System.nanoTime();
+            try (Connection connection = dataSource.getConnection()) {
+                long waited = elapsedMillis(start);
+                maxInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                    queried.incrementAndGet();
+                } finally {
+                    inUse.decrementAndGet();
+                }
+                return waited;
+            }
+        });
+
+        assertThat(queried).hasValue(THREADS);
+        assertThat(maxInUse.get()).isLessThanOrEqualTo(POOL_SIZE);
+        assertThat(waits).allSatisfy(waited -> assertThat(waited).isLessThan(timeoutMillis));
+        assertAllReturned(dataSource);
+    }
+
+    @Test
+    void waitersTimeOutWithinAcquireTimeoutWhenPoolIsHeld() throws Exception {
+        long timeoutMillis = 500;
+        ConnectionLimitingDataSource dataSource = limiting(timeoutMillis);
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            held.add(dataSource.getConnection());
+        }
+        assertThat(dataSource.getAvailablePermits()).isZero();
+
+        AtomicInteger timedOut = new AtomicInteger();
+        List<Long> waits = runOnVirtualThreads(() -> {
+            long start = System.nanoTime();
+            try (Connection ignored = dataSource.getConnection()) {
+                throw new AssertionError("No connection should be available");
+            } catch (SQLTransientConnectionException e) {
+                timedOut.incrementAndGet();
+            }
+            return elapsedMillis(start);
+        });
+
+        assertThat(timedOut).hasValue(THREADS);
+        assertThat(waits).allSatisfy(waited -> assertThat(waited).isLessThan(timeoutMillis + SLACK_MILLIS));
+        for (Connection connection : held) {
+            connection.close();
+        }
+        assertAllReturned(dataSource);
+    }
+
+    @Test
+    void connectionsWithCredentialsAreBoundedAndReturnTheirPermit() throws Exception {
+        long timeoutMillis = 500;
+        DriverManagerDataSource target = new DriverManagerDataSource("jdbc:h2:mem:credentials;DB_CLOSE_DELAY=-1", "sa", "");
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource("credentials", target, 1, timeoutMillis);
+
+        try (Connection connection = dataSource.getConnection("sa", "")) {
+            assertThat(dataSource.getAvailablePermits()).isZero();
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> dataSource.getConnection("sa", "")).isInstanceOf(SQLTransientConnectionException.class);
+            assertThat(elapsedMillis(start)).isLessThan(timeoutMillis + SLACK_MILLIS);
+        }
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+    }
+
+    private ConnectionLimitingDataSource limiting(long timeoutMillis) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:limiting;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(timeoutMillis);
+        hikari = new HikariDataSource(config);
+        return new ConnectionLimitingDataSource("limiting", hikari, POOL_SIZE, timeoutMillis);
+    }
+
+    // Starts every task before any of them runs, so that they all park on the permits at once
+    private static List<Long> runOnVirtualThreads(SqlTask task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> futures = new ArrayList<>(THREADS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.run();
+                }));
+            }
+            start.countDown();
+        }
+        List<Long> results = new ArrayList<>(THREADS);
+        for (Future<Long> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private void assertAllReturned(ConnectionLimitingDataSource dataSource) {
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(dataSource.getMaxPermits());
+        assertThat(dataSource.getWaiting()).isZero();
+        assertThat(hikari.getHikariPoolMXBean().getActiveConnections()).isZero();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    @FunctionalInterface
+    private interface SqlTask {
+        long run() throws SQLException;
+    }
+}
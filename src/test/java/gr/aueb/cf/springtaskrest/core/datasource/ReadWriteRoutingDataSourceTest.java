@@ -0,0 +1,149 @@
+package gr.aueb.cf.springtaskrest.core.datasource;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import gr.aueb.cf.springtaskrest.core.enums.ReplicaReadMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes against two embedded databases that identify themselves through a one-row {@code node} table.
+ */
+class ReadWriteRoutingDataSourceTest {
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private final AtomicLong nanos = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        primary = createNode("primary");
+        replica = createNode("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        Router router = router(ReplicaReadMode.EVENTUAL);
+        assertThat(router.readOnly(router::node)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsAndPlainStatementsGoToPrimary() {
+        Router router = router(ReplicaReadMode.EVENTUAL);
+        assertThat(router.readWrite(router::node)).isEqualTo("primary");
+        assertThat(router.node()).isEqualTo("primary");
+    }
+
+    @Test
+    void writesNeverReachReplica() {
+        Router router = router(ReplicaReadMode.EVENTUAL);
+        router.readWrite(() -> router.jdbc.update("INSERT INTO item (name) VALUES ('written')"));
+        router.jdbc.update("INSERT INTO item (name) VALUES ('autocommit')");
+
+        assertThat(new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM item", Integer.class)).isEqualTo(2);
+        assertThat(new JdbcTemplate(replica).queryForObject("SELECT COUNT(*) FROM item", Integer.class)).isZero();
+    }
+
+    @Test
+    void primaryModeNeverUsesReplica() {
+        Router router = router(ReplicaReadMode.PRIMARY);
+        assertThat(router.readOnly(router::node)).isEqualTo("primary");
+    }
+
+    @Test
+    void writerReadsFromPrimaryWithinWindow() {
+        Router router = router(ReplicaReadMode.READ_YOUR_WRITES);
+        authenticate("alice");
+        router.readWrite(() -> router.jdbc.update("INSERT INTO item (name) VALUES ('mine')"));
+
+        assertThat(router.readOnly(router::node)).isEqualTo("primary");
+
+        authenticate("bob");
+        assertThat(router.readOnly(router::node)).isEqualTo("replica");
+
+        authenticate("alice");
+        nanos.addAndGet(WINDOW.plusSeconds(1).toNanos());
+        assertThat(router.readOnly(router::node)).isEqualTo("replica");
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinToPrimary() {
+        Router router = router(ReplicaReadMode.READ_YOUR_WRITES);
+        authenticate("alice");
+        assertThatThrownBy(() -> router.readWrite(() -> {
+            router.jdbc.update("INSERT INTO item (name) VALUES ('discarded')");
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(router.readOnly(router::node)).isEqualTo("replica");
+    }
+
+    @Test
+    void onPrimaryOverridesReadOnlyRouting() {
+        Router router = router(ReplicaReadMode.EVENTUAL);
+        assertThat(router.readOnly(() -> ReadWriteRoutingDataSource.onPrimary(router::node))).isEqualTo("primary");
+    }
+
+    private Router router(ReplicaReadMode mode) {
+        ReplicaReadPolicy policy = new ReplicaReadPolicy(mode, WINDOW, (Ticker) nanos::get);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, policy));
+        return new Router(new JdbcTemplate(dataSource), new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+    }
+
+    private static EmbeddedDatabase createNode(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.execute("CREATE TABLE item (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node (name) VALUES (?)", name);
+        return database;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(username, null));
+    }
+
+    private record Router(JdbcTemplate jdbc, TransactionTemplate transactions) {
+        String node() {
+            return jdbc.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        <T> T readOnly(Supplier<T> action) {
+            TransactionTemplate readOnly = new TransactionTemplate(transactions.getTransactionManager());
+            readOnly.setReadOnly(true);
+            return readOnly.execute(status -> action.get());
+        }
+
+        <T> T readWrite(Supplier<T> action) {
+            return transactions.execute(status -> action.get());
+        }
+    }
+}
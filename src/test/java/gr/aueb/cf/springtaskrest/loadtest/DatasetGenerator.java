@@ -0,0 +1,121 @@
+package gr.aueb.cf.springtaskrest.loadtest;
+
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Bulk-seeds users and tasks with plain JDBC batches, bypassing the services so that millions of rows load in
+ * seconds. Task counters are not maintained here; they must be rebuilt once seeding is done.
+ */
+class DatasetGenerator {
+    static final String PASSWORD = "LoadTest1!";
+    private static final int BATCH_SIZE = 1_000;
+    private static final int TASK_UUIDS_KEPT_PER_USER = 20;
+    private static final double INACTIVE_USER_RATIO = 0.05;
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users (uuid, username, password, last_password_change, is_active, role, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final String INSERT_TASK_SQL = "INSERT INTO tasks (uuid, title, description, status, user_id, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    // Weighted like a long-lived task list: most work is done or open, few tasks fail or get cancelled
+    private static final TaskStatus[] STATUSES = {TaskStatus.OPEN, TaskStatus.ONGOING, TaskStatus.COMPLETED, TaskStatus.FAILED, TaskStatus.CANCELLED};
+    private static final int[] STATUS_WEIGHTS = {30, 20, 40, 5, 5};
+
+    private static final String[] VERBS = {"Prepare", "Review", "Update", "Fix", "Write", "Plan", "Call", "Send", "Check", "Organize"};
+    private static final String[] OBJECTS = {"quarterly report", "release notes", "budget", "client proposal", "onboarding guide",
+            "team meeting", "invoice", "database backup", "presentation", "travel plan", "code review", "newsletter"};
+
+    record SeededUser(String uuid, String username, boolean active, List<String> taskUuids) {
+    }
+
+    record Dataset(SeededUser admin, List<SeededUser> users) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String passwordHash;
+    private final Random random;
+
+    DatasetGenerator(JdbcTemplate jdbcTemplate, String passwordHash, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordHash = passwordHash;
+        this.random = new Random(seed);
+    }
+
+    Dataset seed(int userCount, int tasksPerUser) {
+        // Before any token is issued, tokens older than the last password change are rejected
+        Timestamp passwordChangedAt = Timestamp.from(Instant.now().minus(Duration.ofDays(1)));
+
+        SeededUser admin = new SeededUser(UUID.randomUUID().toString(), "loadadmin", true, List.of());
+        List<SeededUser> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(new SeededUser(UUID.randomUUID().toString(), "loaduser" + i, random.nextDouble() >= INACTIVE_USER_RATIO, new ArrayList<>()));
+        }
+
+        List<Object[]> userRows = new ArrayList<>(BATCH_SIZE);
+        userRows.add(userRow(admin, Role.ADMIN, passwordChangedAt));
+        for (SeededUser user : users) {
+            userRows.add(userRow(user, Role.USER, passwordChangedAt));
+            if (userRows.size() == BATCH_SIZE) flush(INSERT_USER_SQL, userRows);
+        }
+        flush(INSERT_USER_SQL, userRows);
+
+        Map<String, Long> userIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, uuid FROM users", row -> {
+            userIds.put(row.getString("uuid"), row.getLong("id"));
+        });
+
+        List<Object[]> taskRows = new ArrayList<>(BATCH_SIZE);
+        for (SeededUser user : users) {
+            Long userId = userIds.get(user.uuid());
+            for (int i = 0; i < tasksPerUser; i++) {
+                String taskUuid = UUID.randomUUID().toString();
+                if (user.taskUuids().size() < TASK_UUIDS_KEPT_PER_USER) user.taskUuids().add(taskUuid);
+                Timestamp createdAt = Timestamp.from(Instant.now().minus(Duration.ofMinutes(random.nextInt(60 * 24 * 365))));
+                taskRows.add(new Object[]{taskUuid, title(i), description(), status().name(), userId, createdAt, createdAt});
+                if (taskRows.size() == BATCH_SIZE) flush(INSERT_TASK_SQL, taskRows);
+            }
+        }
+        flush(INSERT_TASK_SQL, taskRows);
+
+        return new Dataset(admin, users);
+    }
+
+    // Titles are unique per user, as the services require
+    String title(int sequence) {
+        return VERBS[random.nextInt(VERBS.length)] + " " + OBJECTS[random.nextInt(OBJECTS.length)] + " #" + sequence;
+    }
+
+    String description() {
+        return "Remember to " + VERBS[random.nextInt(VERBS.length)].toLowerCase() + " the "
+                + OBJECTS[random.nextInt(OBJECTS.length)] + " before the " + OBJECTS[random.nextInt(OBJECTS.length)];
+    }
+
+    TaskStatus status() {
+        int roll = random.nextInt(100);
+        for (int i = 0; i < STATUSES.length; i++) {
+            roll -= STATUS_WEIGHTS[i];
+            if (roll < 0) return STATUSES[i];
+        }
+        return TaskStatus.OPEN;
+    }
+
+    private Object[] userRow(SeededUser user, Role role, Timestamp passwordChangedAt) {
+        return new Object[]{user.uuid(), user.username(), passwordHash, passwordChangedAt, user.active(), role.name(), passwordChangedAt, passwordChangedAt};
+    }
+
+    private void flush(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(sql, rows);
+        rows.clear();
+    }
+}
@@ -0,0 +1,79 @@
+package gr.aueb.cf.springtaskrest.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps every measured latency per endpoint, so percentiles are exact rather than estimated from buckets.
+ * Recording takes a short lock per endpoint, negligible next to an HTTP round trip.
+ */
+class LatencyRecorder {
+
+    record EndpointStats(
+            String endpoint,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis
+    ) {
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private final LongAdder errors = new LongAdder();
+
+        synchronized void add(long value) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = value;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private final Map<Workload.Operation, Samples> samples = new EnumMap<>(Workload.Operation.class);
+
+    LatencyRecorder() {
+        for (Workload.Operation operation : Workload.Operation.values()) {
+            samples.put(operation, new Samples());
+        }
+    }
+
+    void record(Workload.Operation operation, long nanos, boolean error) {
+        Samples endpointSamples = samples.get(operation);
+        endpointSamples.add(nanos);
+        if (error) endpointSamples.errors.increment();
+    }
+
+    EndpointStats stats(Workload.Operation operation, Duration measured) {
+        Samples endpointSamples = samples.get(operation);
+        long[] sorted = endpointSamples.sorted();
+        return new EndpointStats(
+                operation.label(),
+                sorted.length,
+                endpointSamples.errors.sum(),
+                sorted.length / (measured.toNanos() / 1e9),
+                percentileMillis(sorted, 0.50),
+                percentileMillis(sorted, 0.99),
+                percentileMillis(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6
+        );
+    }
+
+    // Nearest-rank percentile; p999 is only meaningful with at least a thousand samples
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+}
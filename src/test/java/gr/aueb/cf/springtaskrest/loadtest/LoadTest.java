@@ -0,0 +1,92 @@
+package gr.aueb.cf.springtaskrest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.springtaskrest.service.ITaskStatsService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test against the full application on an embedded H2 database in MySQL mode.
+ * Excluded from {@code test}; run with {@code ./gradlew loadTest}, sized through {@link LoadTestSettings}.
+ * Results are logged as a table and written to {@code build/reports/loadtest/results.json}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+class LoadTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+    private static final Path RESULTS_FILE = Path.of("build", "reports", "loadtest", "results.json");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ITaskStatsService taskStatsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        long seedStart = System.nanoTime();
+        // One hash for every user, so seeding does not pay BCrypt per row; logins still verify it in full
+        DatasetGenerator generator = new DatasetGenerator(jdbcTemplate, passwordEncoder.encode(DatasetGenerator.PASSWORD), settings.seed());
+        DatasetGenerator.Dataset dataset = generator.seed(settings.users(), settings.tasksPerUser());
+        taskStatsService.rebuild();
+        LOGGER.info("Seeded {} users with {} tasks each in {}ms", settings.users(), settings.tasksPerUser(),
+                Duration.ofNanos(System.nanoTime() - seedStart).toMillis());
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        Duration measured = new Workload("http://localhost:" + port, objectMapper, dataset).run(settings, recorder);
+
+        List<LatencyRecorder.EndpointStats> stats = Arrays.stream(Workload.Operation.values())
+                .map(operation -> recorder.stats(operation, measured))
+                .toList();
+        report(settings, stats);
+
+        assertThat(stats).allSatisfy(endpoint -> assertThat(endpoint.requests()).isPositive());
+    }
+
+    private void report(LoadTestSettings settings, List<LatencyRecorder.EndpointStats> stats) throws Exception {
+        StringBuilder table = new StringBuilder(String.format("%n%-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (LatencyRecorder.EndpointStats endpoint : stats) {
+            table.append(String.format("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.endpoint(), endpoint.requests(), endpoint.errors(), endpoint.throughputPerSecond(),
+                    endpoint.p50Millis(), endpoint.p99Millis(), endpoint.p999Millis(), endpoint.maxMillis()));
+        }
+        LOGGER.info("Load test results with {} workers over {}s:{}", settings.concurrency(), settings.duration().toSeconds(), table);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        results.put("settings", settings);
+        results.put("endpoints", stats);
+        Files.createDirectories(RESULTS_FILE.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(RESULTS_FILE.toFile(), results);
+    }
+}
@@ -0,0 +1,27 @@
+package gr.aueb.cf.springtaskrest.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Size of the synthetic dataset and shape of the workload, read from {@code loadtest.*} system properties,
+ * e.g. {@code ./gradlew loadTest -Dloadtest.users=1000 -Dloadtest.concurrency=64}.
+ */
+record LoadTestSettings(
+        int users,
+        int tasksPerUser,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        long seed
+) {
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.users", 200),
+                Integer.getInteger("loadtest.tasksPerUser", 50),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60)),
+                Long.getLong("loadtest.seed", 42)
+        );
+    }
+}
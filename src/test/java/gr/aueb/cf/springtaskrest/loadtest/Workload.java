@@ -0,0 +1,194 @@
+package gr.aueb.cf.springtaskrest.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop mixed workload: each of {@code concurrency} workers sends one request at a time, picking the
+ * operation by weight and the user at random. Requests that start during the warmup are sent but not recorded.
+ */
+class Workload {
+
+    enum Operation {
+        LOGIN("POST /auth/login", 2),
+        MY_TASKS("GET /users/me/tasks", 35),
+        MY_TASK("GET /users/me/tasks/{uuid}", 15),
+        ADMIN_FILTERED("POST /tasks/filtered", 13),
+        CREATE("POST /users/me/tasks", 15),
+        UPDATE("PATCH /users/me/tasks/{uuid}", 20);
+
+        private final String label;
+        private final int weight;
+
+        Operation(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+
+        String label() {
+            return label;
+        }
+
+        static Operation pick(Random random) {
+            int total = 0;
+            for (Operation operation : values()) total += operation.weight;
+            int roll = random.nextInt(total);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) return operation;
+            }
+            return MY_TASKS;
+        }
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] SORT_FIELDS = {"id", "title", "createdAt", "status"};
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final DatasetGenerator.SeededUser admin;
+    private final List<DatasetGenerator.SeededUser> users;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    Workload(String baseUrl, ObjectMapper objectMapper, DatasetGenerator.Dataset dataset) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.admin = dataset.admin();
+        // Inactive users cannot log in, they only take part as data
+        this.users = dataset.users().stream().filter(DatasetGenerator.SeededUser::active).toList();
+    }
+
+    /**
+     * Runs the workload and returns the length of the measured (post-warmup) window.
+     */
+    Duration run(LoadTestSettings settings, LatencyRecorder recorder) throws Exception {
+        login(admin.username());
+
+        long measureStart = System.nanoTime() + settings.warmup().toNanos();
+        long end = measureStart + settings.duration().toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int i = 0; i < settings.concurrency(); i++) {
+                Random random = new Random(settings.seed() + i);
+                results.add(workers.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        step(random, measureStart, recorder);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return settings.duration();
+    }
+
+    private void step(Random random, long measureStart, LatencyRecorder recorder) throws IOException, InterruptedException {
+        DatasetGenerator.SeededUser user = users.get(random.nextInt(users.size()));
+        Operation operation = tokens.containsKey(user.username()) ? Operation.pick(random) : Operation.LOGIN;
+        if ((operation == Operation.MY_TASK || operation == Operation.UPDATE) && user.taskUuids().isEmpty()) {
+            operation = Operation.MY_TASKS;
+        }
+
+        long start = System.nanoTime();
+        int status = switch (operation) {
+            case LOGIN -> login(user.username());
+            case MY_TASKS -> send(get("/api/v1/users/me/tasks?page=" + random.nextInt(3) + "&size=10", user));
+            case MY_TASK -> send(get("/api/v1/users/me/tasks/" + anyTask(user, random), user));
+            case ADMIN_FILTERED -> send(post("/api/v1/tasks/filtered", adminFilters(random), admin));
+            case CREATE -> send(post("/api/v1/users/me/tasks", Map.of(
+                    "title", "Load test task " + UUID.randomUUID(),
+                    "description", "Created while measuring",
+                    "status", TaskStatus.OPEN.name()), user));
+            case UPDATE -> send(patch("/api/v1/users/me/tasks/" + anyTask(user, random),
+                    Map.of("status", TaskStatus.values()[random.nextInt(TaskStatus.values().length)].name()), user));
+        };
+        long elapsed = System.nanoTime() - start;
+        if (start >= measureStart) {
+            recorder.record(operation, elapsed, status >= 400);
+        }
+    }
+
+    private int login(String username) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                        Map.of("username", username, "password", DatasetGenerator.PASSWORD))))
+                .build();
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 200) {
+            JsonNode body = objectMapper.readTree(response.body());
+            tokens.put(username, body.get("token").asText());
+        }
+        return response.statusCode();
+    }
+
+    private Map<String, Object> adminFilters(Random random) {
+        return Map.of(
+                "page", random.nextInt(5),
+                "size", 20,
+                "sortBy", SORT_FIELDS[random.nextInt(SORT_FIELDS.length)],
+                "orderBy", random.nextBoolean() ? "ASC" : "DESC",
+                "taskStatus", List.of(TaskStatus.values()[random.nextInt(TaskStatus.values().length)].name()),
+                "userIsActive", true,
+                "countMode", "CACHED"
+        );
+    }
+
+    private static String anyTask(DatasetGenerator.SeededUser user, Random random) {
+        return user.taskUuids().get(random.nextInt(user.taskUuids().size()));
+    }
+
+    private HttpRequest.Builder authorized(String path, DatasetGenerator.SeededUser user) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + tokens.get(user.username()));
+    }
+
+    private HttpRequest get(String path, DatasetGenerator.SeededUser user) {
+        return authorized(path, user).GET().build();
+    }
+
+    private HttpRequest post(String path, Object body, DatasetGenerator.SeededUser user) throws IOException {
+        return authorized(path, user)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private HttpRequest patch(String path, Object body, DatasetGenerator.SeededUser user) throws IOException {
+        return authorized(path, user)
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,79 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.model.Task;
+import gr.aueb.cf.springtaskrest.model.User;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Guards the open-in-view setting: entities must not be lazily initialized once their transaction is over,
+ * so a connection can never be held while a response is serialized.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LazyLoadingOutsideTransactionTest {
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private Environment environment;
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void openSessionInViewIsDisabled() {
+        assertThat(environment.getProperty("spring.jpa.open-in-view", Boolean.class)).isFalse();
+        assertThat(environment.getProperty("spring.jpa.properties.hibernate.enable_lazy_load_no_trans", Boolean.class, false)).isFalse();
+    }
+
+    @Test
+    void lazyAssociationCannotBeLoadedOutsideTransaction() {
+        Task task = saveTask();
+
+        Task loaded = taskRepository.findById(task.getId()).orElseThrow();
+
+        assertThatThrownBy(() -> loaded.getUser().getUsername()).isInstanceOf(LazyInitializationException.class);
+    }
+
+    @Test
+    void fetchedAssociationIsAvailableOutsideTransaction() {
+        Task task = saveTask();
+
+        Task loaded = taskRepository.findByUuid(task.getUuid()).orElseThrow();
+
+        assertThat(loaded.getUser().getUsername()).isEqualTo("lazy@aueb.gr");
+    }
+
+    private Task saveTask() {
+        User user = userRepository.save(User.builder()
+                .username("lazy@aueb.gr")
+                .password("secret")
+                .isActive(true)
+                .role(Role.USER)
+                .build());
+        Task task = new Task();
+        task.setTitle("Title");
+        task.setDescription("Description");
+        task.setStatus(TaskStatus.OPEN);
+        task.setUser(user);
+        return taskRepository.save(task);
+    }
+}
@@ -0,0 +1,86 @@
+package gr.aueb.cf.springtaskrest.repository;
+
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.model.Task;
+import gr.aueb.cf.springtaskrest.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk status updates walk the matching ids in chunks; a specification that orders its rows (as search does
+ * by relevance) must not make the walk skip any of them.
+ */
+@DataJpaTest
+class TaskBulkStatusUpdateTest {
+    private static final int MATCHING_TASKS = 2_500;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void orderedSpecificationUpdatesEveryMatchingTask() {
+        User user = userRepository.save(User.builder()
+                .username("bulk@aueb.gr")
+                .password("secret")
+                .isActive(true)
+                .role(Role.USER)
+                .build());
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < MATCHING_TASKS; i++) {
+            tasks.add(task(user, "Match " + i));
+        }
+        tasks.add(task(user, "Other"));
+        taskRepository.saveAll(tasks);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Stands in for search relevance, the worst case for a walk by id
+        Specification<Task> matchesByRelevance = (root, query, builder) -> {
+            query.orderBy(builder.desc(root.get("id")));
+            return builder.like(root.get("title"), "Match%");
+        };
+
+        long updated = 0;
+        int chunks = 0;
+        TaskStatusUpdateChunk chunk;
+        long lastId = 0;
+        do {
+            chunk = taskRepository.updateStatusChunk(matchesByRelevance, TaskStatus.COMPLETED, lastId);
+            updated += chunk.updated();
+            lastId = chunk.lastId();
+            chunks++;
+        } while (!chunk.last());
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(MATCHING_TASKS);
+        assertThat(chunks).isEqualTo(3);
+        assertThat(taskRepository.count((root, query, builder) -> builder.equal(root.get("status"), TaskStatus.COMPLETED)))
+                .isEqualTo(MATCHING_TASKS);
+        assertThat(taskRepository.count((root, query, builder) -> builder.equal(root.get("status"), TaskStatus.OPEN)))
+                .isEqualTo(1);
+    }
+
+    private static Task task(User user, String title) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Description");
+        task.setStatus(TaskStatus.OPEN);
+        task.setUser(user);
+        return task;
+    }
+}
@@ -0,0 +1,107 @@
+package gr.aueb.cf.springtaskrest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gr.aueb.cf.springtaskrest.core.enums.ExportFormat;
+import gr.aueb.cf.springtaskrest.core.enums.Role;
+import gr.aueb.cf.springtaskrest.core.enums.TaskStatus;
+import gr.aueb.cf.springtaskrest.dto.TaskFiltersDTO;
+import gr.aueb.cf.springtaskrest.dto.UserFiltersDTO;
+import gr.aueb.cf.springtaskrest.model.Task;
+import gr.aueb.cf.springtaskrest.model.User;
+import gr.aueb.cf.springtaskrest.repository.TaskRepository;
+import gr.aueb.cf.springtaskrest.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * With open-in-view disabled, whatever the services return is serialized after their transaction is over.
+ * Calls the read methods the controllers use without a surrounding transaction and serializes the results,
+ * so a DTO that still reaches into a lazy association fails here instead of in a response.
+ * Runs on the embedded database of the {@code loadtest} profile.
+ */
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class ServiceReadsOutsideTransactionTest {
+    private static final String USERNAME = "reader@aueb.gr";
+
+    @Autowired
+    private ITaskService taskService;
+
+    @Autowired
+    private IUserService userService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username(USERNAME)
+                .password("secret")
+                .isActive(true)
+                .role(Role.USER)
+                .build());
+        task = new Task();
+        task.setTitle("Title");
+        task.setDescription("Description");
+        task.setStatus(TaskStatus.OPEN);
+        task.setUser(user);
+        task = taskRepository.save(task);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void taskReadsSerializeOutsideTransaction() throws Exception {
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+
+        assertThat(serialize(taskService.findTaskByUuid(task.getUuid()))).contains(USERNAME);
+        assertThat(serialize(taskService.findTaskByUserUuidAndTaskUuid(user.getUuid(), task.getUuid()))).contains(USERNAME);
+        assertThat(serialize(taskService.findTaskByUserIdAndTaskUuid(user.getId(), task.getUuid()))).contains(USERNAME);
+        assertThat(serialize(taskService.findTaskByUserUuidAndTaskTitle(user.getUuid(), task.getTitle()))).contains(USERNAME);
+        assertThat(serialize(taskService.getFilteredPaginatedTasks(new TaskFiltersDTO(0, 10)))).contains(USERNAME);
+        assertThat(serialize(taskService.getFilteredTasks(new TaskFiltersDTO(user.getUuid())))).contains(USERNAME);
+
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        taskService.exportFilteredTasks(new TaskFiltersDTO(), ExportFormat.NDJSON, export);
+        assertThat(export.toString(StandardCharsets.UTF_8)).contains(USERNAME);
+    }
+
+    @Test
+    void userReadsSerializeOutsideTransaction() throws Exception {
+        assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+
+        assertThat(serialize(userService.findByUuid(user.getUuid()))).contains(USERNAME);
+        assertThat(serialize(userService.findByUsername(USERNAME))).contains(USERNAME);
+        assertThat(serialize(userService.getUsersFilteredPaginated(new UserFiltersDTO()))).contains(USERNAME);
+        assertThat(serialize(userService.getUsersPaginated(0, 10).getContent())).contains(USERNAME);
+        assertThat(serialize(userService.getUsersFiltered(new UserFiltersDTO()))).contains(USERNAME);
+    }
+
+    private String serialize(Object value) throws Exception {
+        return objectMapper.writeValueAsString(value);
+    }
+}